@@ -0,0 +1,76 @@
+package com.conference.analytics.config;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.CompressionType;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.WriteBufferManager;
+
+import java.util.Map;
+
+/**
+ * Puts every RocksDB instance of this application, including each segment of the window stores,
+ * under one shared block cache and one shared memtable budget. Otherwise each instance allocates
+ * its own 50MB block cache and write buffers, and memory grows with the number of segments.
+ * <p>
+ * Configured through {@code spring.kafka.streams.properties}:
+ * {@code rocksdb.config.setter} names this class, and the {@code analytics.rocksdb.*} keys below
+ * size it.
+ */
+public class BoundedMemoryRocksDBConfig implements RocksDBConfigSetter {
+
+    public static final String BLOCK_CACHE_BYTES = "analytics.rocksdb.block-cache-bytes";
+    public static final String WRITE_BUFFER_BYTES = "analytics.rocksdb.write-buffer-bytes";
+    public static final String WRITE_BUFFER_COUNT = "analytics.rocksdb.write-buffer-count";
+    public static final String TOTAL_WRITE_BUFFER_BYTES = "analytics.rocksdb.total-write-buffer-bytes";
+    public static final String BLOCK_SIZE = "analytics.rocksdb.block-size";
+    public static final String COMPRESSION = "analytics.rocksdb.compression";
+
+    private static final double INDEX_AND_FILTER_RATIO = 0.1;
+
+    // Shared by every store of the process and never closed: they live as long as the application.
+    private static Cache blockCache;
+    private static WriteBufferManager writeBufferManager;
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        initShared(configs);
+
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(blockCache);
+        tableConfig.setBlockSize(longConfig(configs, BLOCK_SIZE, 16 * 1024L));
+        // Index and filter blocks count against the cache instead of growing outside of it.
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setCacheIndexAndFilterBlocksWithHighPriority(true);
+        tableConfig.setPinTopLevelIndexAndFilter(true);
+        options.setTableFormatConfig(tableConfig);
+
+        options.setWriteBufferManager(writeBufferManager);
+        options.setWriteBufferSize(longConfig(configs, WRITE_BUFFER_BYTES, 8 * 1024 * 1024L));
+        options.setMaxWriteBufferNumber((int) longConfig(configs, WRITE_BUFFER_COUNT, 2));
+        options.setCompressionType(CompressionType.getCompressionType(stringConfig(configs, COMPRESSION, "lz4")));
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+    }
+
+    private static synchronized void initShared(Map<String, Object> configs) {
+        if (blockCache == null) {
+            blockCache = new LRUCache(longConfig(configs, BLOCK_CACHE_BYTES, 64 * 1024 * 1024L), -1, false, INDEX_AND_FILTER_RATIO);
+            writeBufferManager = new WriteBufferManager(longConfig(configs, TOTAL_WRITE_BUFFER_BYTES, 32 * 1024 * 1024L), blockCache);
+        }
+    }
+
+    private static long longConfig(Map<String, Object> configs, String key, long defaultValue) {
+        Object value = configs.get(key);
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+
+    private static String stringConfig(Map<String, Object> configs, String key, String defaultValue) {
+        Object value = configs.get(key);
+        return value == null ? defaultValue : value.toString();
+    }
+}
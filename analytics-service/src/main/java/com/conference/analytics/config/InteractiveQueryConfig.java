@@ -0,0 +1,34 @@
+package com.conference.analytics.config;
+
+import com.conference.support.threads.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class InteractiveQueryConfig {
+
+    @Bean
+    public RestTemplate interactiveQueryRestTemplate(RestTemplateBuilder builder,
+                                                     @Value("${analytics.query.timeout:2s}") Duration timeout) {
+        return builder
+                .setConnectTimeout(timeout)
+                .setReadTimeout(timeout)
+                .build();
+    }
+
+    // Remote lookups mostly wait on the network, so virtual threads need no pool bound.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService interactiveQueryExecutor(@Value("${analytics.query.parallelism:8}") int parallelism,
+                                                    @Value("${threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads
+                ? VirtualThreads.newExecutor("interactive-query-")
+                : Executors.newFixedThreadPool(parallelism);
+    }
+}
@@ -0,0 +1,37 @@
+package com.conference.analytics.config;
+
+import com.conference.analytics.processor.ReviewStreamsProcessor;
+import com.conference.support.threads.VirtualThreads;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class LiveFeedConfig {
+
+    // Only read from its tail by the live feed, so an hour of history is plenty.
+    @Bean
+    public NewTopic reviewStatsUpdatesTopic(@Value("${kafka.topics.review-stats-updates.partitions:6}") int partitions,
+                                            @Value("${kafka.topics.review-stats-updates.replicas:1}") int replicas) {
+        return TopicBuilder.name(ReviewStreamsProcessor.REVIEW_STATS_UPDATES_TOPIC)
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService liveFeedExecutor(@Value("${analytics.live.send-threads:4}") int sendThreads,
+                                            @Value("${threads.virtual.enabled:false}") boolean virtualThreads) {
+        return virtualThreads
+                ? VirtualThreads.newExecutor("live-feed-")
+                : Executors.newFixedThreadPool(sendThreads);
+    }
+}
@@ -0,0 +1,17 @@
+package com.conference.analytics.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.StreamsBuilderFactoryBeanConfigurer;
+import org.springframework.kafka.streams.KafkaStreamsMicrometerListener;
+
+@Configuration
+public class StreamsMetricsConfig {
+
+    // kafka.stream.* and the embedded clients' meters, including each partition's records-lag.
+    @Bean
+    public StreamsBuilderFactoryBeanConfigurer streamsMetrics(MeterRegistry meterRegistry) {
+        return factoryBean -> factoryBean.addListener(new KafkaStreamsMicrometerListener(meterRegistry));
+    }
+}
@@ -1,48 +1,88 @@
 package com.conference.analytics.controller;
 
+import com.conference.analytics.live.ReviewStatsFeed;
 import com.conference.analytics.model.ReviewStats;
-import org.apache.kafka.streams.KeyValue;
-import org.apache.kafka.streams.state.KeyValueIterator;
-import org.apache.kafka.streams.state.QueryableStoreTypes;
-import org.apache.kafka.streams.state.ReadOnlyWindowStore;
-import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import com.conference.analytics.model.ReviewTotals;
+import com.conference.analytics.model.TrendingConferences;
+import com.conference.analytics.query.ReviewStatsQueryService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/analytics")
 public class AnalyticsController {
 
-    private final StreamsBuilderFactoryBean factoryBean;
+    private final ReviewStatsQueryService queryService;
+    private final ReviewStatsFeed reviewStatsFeed;
 
-    public AnalyticsController(StreamsBuilderFactoryBean factoryBean) {
-        this.factoryBean = factoryBean;
+    public AnalyticsController(ReviewStatsQueryService queryService, ReviewStatsFeed reviewStatsFeed) {
+        this.queryService = queryService;
+        this.reviewStatsFeed = reviewStatsFeed;
     }
 
-    @GetMapping("/reviews/window")
-    public List<ReviewStats> getReviewStats() {
-        List<ReviewStats> stats = new ArrayList<>();
-        ReadOnlyWindowStore<String, ReviewStats> store = factoryBean.getKafkaStreams()
-                .store("review-stats-store", QueryableStoreTypes.windowStore());
+    @GetMapping(value = "/reviews/window", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody getReviewStats() {
+        Instant now = Instant.now();
+        return queryService.streamAll(now.minusSeconds(30), now);
+    }
+
+    @GetMapping(value = "/reviews/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamReviewStats(@RequestParam(required = false) String conferenceId) {
+        return reviewStatsFeed.subscribe(conferenceId);
+    }
 
+    @GetMapping("/reviews/window/{conferenceId}")
+    public List<ReviewStats> getConferenceReviewStats(@PathVariable String conferenceId) {
         Instant now = Instant.now();
-        Instant from = now.minusSeconds(30);
-
-        try (KeyValueIterator<org.apache.kafka.streams.kstream.Windowed<String>, ReviewStats> iterator = store.fetchAll(from, now)) {
-            while (iterator.hasNext()) {
-                KeyValue<org.apache.kafka.streams.kstream.Windowed<String>, ReviewStats> next = iterator.next();
-                ReviewStats currentStats = next.value;
-                currentStats.setAverageStars( (double) currentStats.getTotalStars() / currentStats.getCount());
-                currentStats.setWindowStart(next.key.window().startTime());
-                currentStats.setWindowEnd(next.key.window().endTime());
-                stats.add(currentStats);
-            }
+        return queryService.findByConference(conferenceId, now.minusSeconds(30), now);
+    }
+
+    @GetMapping("/reviews/series/{conferenceId}")
+    public List<ReviewStats> getConferenceReviewSeries(@PathVariable String conferenceId,
+                                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to == null ? Instant.now() : to;
+        checkRange(from, end);
+        return queryService.findSeries(conferenceId, from, end);
+    }
+
+    @GetMapping("/reviews/range/{conferenceId}")
+    public ReviewStats getConferenceReviewRange(@PathVariable String conferenceId,
+                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to == null ? Instant.now() : to;
+        checkRange(from, end);
+        return queryService.findRange(conferenceId, from, end);
+    }
+
+    @GetMapping("/trending")
+    public TrendingConferences getTrendingConferences(@RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive");
+        }
+        return queryService.findTrending(Instant.now(), limit);
+    }
+
+    @GetMapping("/reviews/totals/{conferenceId}")
+    public ReviewTotals getConferenceReviewTotals(@PathVariable String conferenceId) {
+        return queryService.findTotals(conferenceId);
+    }
+
+    private void checkRange(Instant from, Instant to) {
+        if (from.isAfter(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
         }
-        return stats;
     }
 }
@@ -0,0 +1,58 @@
+package com.conference.analytics.controller;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.ReviewTotals;
+import com.conference.analytics.model.TrendingConferences;
+import com.conference.analytics.processor.WindowResolution;
+import com.conference.analytics.query.ReviewStatsQueryService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Instance-to-instance endpoints that only read the local state store. Not routed by the gateway.
+ */
+@RestController
+@RequestMapping("/internal/analytics")
+public class InternalAnalyticsController {
+
+    private final ReviewStatsQueryService queryService;
+
+    public InternalAnalyticsController(ReviewStatsQueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    @GetMapping(value = "/reviews/window", produces = MediaType.APPLICATION_JSON_VALUE)
+    public StreamingResponseBody getLocalReviewStats(@RequestParam long from, @RequestParam long to) {
+        return queryService.streamAllLocal(Instant.ofEpochMilli(from), Instant.ofEpochMilli(to));
+    }
+
+    @GetMapping("/reviews/window/{conferenceId}")
+    public List<ReviewStats> getLocalConferenceReviewStats(@PathVariable String conferenceId,
+                                                           @RequestParam long from, @RequestParam long to) {
+        return queryService.findByConferenceLocal(conferenceId, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to));
+    }
+
+    @GetMapping("/reviews/series/{conferenceId}")
+    public List<ReviewStats> getLocalConferenceReviewSeries(@PathVariable String conferenceId, @RequestParam WindowResolution resolution,
+                                                            @RequestParam long from, @RequestParam long to) {
+        return queryService.findSeriesLocal(conferenceId, resolution, Instant.ofEpochMilli(from), Instant.ofEpochMilli(to));
+    }
+
+    @GetMapping("/reviews/trending")
+    public TrendingConferences getLocalTrendingConferences(@RequestParam long windowStart, @RequestParam int limit) {
+        return queryService.findTrendingLocal(windowStart, limit);
+    }
+
+    @GetMapping("/reviews/totals/{conferenceId}")
+    public ReviewTotals getLocalConferenceReviewTotals(@PathVariable String conferenceId) {
+        return queryService.findTotalsLocal(conferenceId);
+    }
+}
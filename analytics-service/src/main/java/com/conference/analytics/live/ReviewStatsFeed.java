@@ -0,0 +1,144 @@
+package com.conference.analytics.live;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.processor.ReviewStreamsProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes 5-second window updates to server-sent event clients. Each instance reads the whole
+ * {@code review-stats-updates} topic once, from its tail, and fans every update out to its own
+ * clients, so any instance behind the gateway can serve any dashboard.
+ * <p>
+ * Every client has its own queue keyed by conference and window. A newer update of a window that
+ * is still queued replaces the older one in place, so a slow client skips intermediate values
+ * instead of falling behind. A client whose queue still grows past
+ * {@code analytics.live.max-pending} distinct windows is disconnected.
+ */
+@Slf4j
+@Component
+public class ReviewStatsFeed {
+
+    private static final String WINDOW_EVENT = "window";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Duration timeout;
+
+    public ReviewStatsFeed(@Qualifier("liveFeedExecutor") ExecutorService executor,
+                           @Value("${analytics.live.max-pending:1000}") int maxPending,
+                           @Value("${analytics.live.timeout:30m}") Duration timeout) {
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(String conferenceId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, conferenceId);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @KafkaListener(topics = ReviewStreamsProcessor.REVIEW_STATS_UPDATES_TOPIC,
+            groupId = "${spring.application.name}-live-${random.uuid}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "value.deserializer=com.conference.analytics.serde.ReviewStatsSerde"
+            })
+    public void onWindowUpdate(ReviewStats stats) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.wants(stats)) {
+                offer(subscriber, stats);
+            }
+        }
+    }
+
+    private void offer(Subscriber subscriber, ReviewStats stats) {
+        if (subscriber.enqueue(stats) > maxPending) {
+            disconnect(subscriber, new IllegalStateException("Client is too slow for the live feed"));
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                List<ReviewStats> batch = subscriber.takeAll();
+                if (batch.isEmpty()) {
+                    subscriber.draining.set(false);
+                    // An update may have been queued after takeAll but before the flag was cleared.
+                    if (subscriber.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                for (ReviewStats stats : batch) {
+                    subscriber.emitter.send(SseEmitter.event().name(WINDOW_EVENT).data(stats));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            disconnect(subscriber, e);
+        }
+    }
+
+    private void disconnect(Subscriber subscriber, Exception reason) {
+        if (subscribers.remove(subscriber)) {
+            log.debug("Dropping live feed client: {}", reason.getMessage());
+            subscriber.emitter.completeWithError(reason);
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final String conferenceId;
+        private final Map<String, ReviewStats> pending = new LinkedHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, String conferenceId) {
+            this.emitter = emitter;
+            this.conferenceId = conferenceId;
+        }
+
+        boolean wants(ReviewStats stats) {
+            return conferenceId == null || conferenceId.equals(stats.getConferenceId());
+        }
+
+        synchronized int enqueue(ReviewStats stats) {
+            pending.put(stats.getConferenceId() + '@' + stats.getWindowStart(), stats);
+            return pending.size();
+        }
+
+        synchronized List<ReviewStats> takeAll() {
+            List<ReviewStats> batch = new ArrayList<>(pending.values());
+            pending.clear();
+            return batch;
+        }
+
+        synchronized boolean isEmpty() {
+            return pending.isEmpty();
+        }
+    }
+}
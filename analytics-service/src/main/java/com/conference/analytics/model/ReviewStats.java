@@ -1,18 +1,44 @@
 package com.conference.analytics.model;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.Value;
 
 import java.time.Instant;
 
-@Data
+/**
+ * Review statistics of one conference over one window. Instances are immutable, so values read
+ * from a state store can be handed out as they are: {@link #add} and {@link #withWindow} return
+ * copies. The average and histogram are maintained by {@link #add}, when the aggregate is written.
+ * Store values carry no window bounds; those come from the windowed key and are attached on read.
+ */
+@Value
 @AllArgsConstructor
-@NoArgsConstructor
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
 public class ReviewStats {
-    private long count;
-    private long totalStars;
-    private double averageStars;
-    private Instant windowStart;
-    private Instant windowEnd;
+    public static final ReviewStats EMPTY = new ReviewStats(null, 0, 0, 0, new long[ReviewTotals.MAX_STARS], null, null);
+
+    String conferenceId;
+    long count;
+    long totalStars;
+    double averageStars;
+    long[] starHistogram;
+    Instant windowStart;
+    Instant windowEnd;
+
+    public long[] getStarHistogram() {
+        return starHistogram == null ? new long[ReviewTotals.MAX_STARS] : starHistogram.clone();
+    }
+
+    public ReviewStats add(String conferenceId, int stars) {
+        long newCount = count + 1;
+        long newTotal = totalStars + stars;
+        return new ReviewStats(conferenceId, newCount, newTotal, (double) newTotal / newCount,
+                ReviewTotals.addToHistogram(starHistogram, stars), windowStart, windowEnd);
+    }
+
+    public ReviewStats withWindow(Instant windowStart, Instant windowEnd) {
+        return new ReviewStats(conferenceId, count, totalStars, averageStars, starHistogram, windowStart, windowEnd);
+    }
 }
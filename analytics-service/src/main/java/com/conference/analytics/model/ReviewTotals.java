@@ -0,0 +1,53 @@
+package com.conference.analytics.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+/**
+ * All-time review statistics of one conference. Immutable like {@link ReviewStats}; the average
+ * and histogram are maintained by {@link #add}.
+ */
+@Value
+@AllArgsConstructor
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+public class ReviewTotals {
+    public static final int MAX_STARS = 5;
+    public static final ReviewTotals EMPTY = new ReviewTotals(null, 0, 0, 0, new long[MAX_STARS]);
+
+    String conferenceId;
+    long count;
+    long totalStars;
+    double averageStars;
+    long[] starHistogram;
+
+    public static ReviewTotals empty(String conferenceId) {
+        return new ReviewTotals(conferenceId, 0, 0, 0, new long[MAX_STARS]);
+    }
+
+    public long[] getStarHistogram() {
+        return starHistogram == null ? new long[MAX_STARS] : starHistogram.clone();
+    }
+
+    public ReviewTotals add(String conferenceId, int stars) {
+        long newCount = count + 1;
+        long newTotal = totalStars + stars;
+        return new ReviewTotals(conferenceId, newCount, newTotal, (double) newTotal / newCount, addToHistogram(starHistogram, stars));
+    }
+
+    /**
+     * Returns a copy of {@code histogram} with the bucket of {@code stars} incremented. Ratings
+     * outside 1..{@link #MAX_STARS} are counted in the totals but not in the histogram.
+     */
+    static long[] addToHistogram(long[] histogram, int stars) {
+        long[] copy = new long[MAX_STARS];
+        if (histogram != null) {
+            System.arraycopy(histogram, 0, copy, 0, Math.min(histogram.length, MAX_STARS));
+        }
+        if (stars >= 1 && stars <= MAX_STARS) {
+            copy[stars - 1]++;
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,16 @@
+package com.conference.analytics.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+public class TrendingConference {
+    String conferenceId;
+    long count;
+    double averageStars;
+    double reviewsPerMinute;
+}
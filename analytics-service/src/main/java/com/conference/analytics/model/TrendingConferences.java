@@ -0,0 +1,87 @@
+package com.conference.analytics.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The best conferences of one trending window, ranked by review velocity and by average rating.
+ * Each ranking is a sorted list bounded to a fixed capacity, so an update costs O(capacity) no
+ * matter how many conferences are reviewed in the window.
+ * <p>
+ * A conference that leaves a ranking only comes back with its next review. Velocity never drops
+ * within a window, so that ranking is exact; an average can, so the rating ranking keeps more
+ * candidates than are ever returned.
+ */
+@Value
+@AllArgsConstructor
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+public class TrendingConferences {
+    public static final Comparator<TrendingConference> BY_VELOCITY = Comparator
+            .comparingLong(TrendingConference::getCount).reversed()
+            .thenComparing(Comparator.comparingDouble(TrendingConference::getAverageStars).reversed())
+            .thenComparing(TrendingConference::getConferenceId);
+    public static final Comparator<TrendingConference> BY_RATING = Comparator
+            .comparingDouble(TrendingConference::getAverageStars).reversed()
+            .thenComparing(Comparator.comparingLong(TrendingConference::getCount).reversed())
+            .thenComparing(TrendingConference::getConferenceId);
+
+    Instant windowStart;
+    Instant windowEnd;
+    List<TrendingConference> byVelocity;
+    List<TrendingConference> byRating;
+
+    public static TrendingConferences empty(Instant windowStart, Instant windowEnd) {
+        return new TrendingConferences(windowStart, windowEnd, List.of(), List.of());
+    }
+
+    /**
+     * Returns a copy with the conference's current window stats ranked. Conferences with fewer than
+     * {@code minReviews} reviews are kept out of the rating ranking.
+     */
+    public TrendingConferences update(ReviewStats stats, int capacity, long minReviews) {
+        double minutes = Math.max(Duration.between(windowStart, windowEnd).toMillis(), 1) / 60000.0;
+        TrendingConference entry = new TrendingConference(stats.getConferenceId(), stats.getCount(),
+                stats.getAverageStars(), stats.getCount() / minutes);
+        return new TrendingConferences(windowStart, windowEnd,
+                rank(byVelocity, entry, BY_VELOCITY, capacity, true),
+                rank(byRating, entry, BY_RATING, capacity, stats.getCount() >= minReviews));
+    }
+
+    public boolean contains(String conferenceId) {
+        return byVelocity.stream().anyMatch(entry -> entry.getConferenceId().equals(conferenceId))
+                || byRating.stream().anyMatch(entry -> entry.getConferenceId().equals(conferenceId));
+    }
+
+    public TrendingConferences limit(int limit) {
+        return new TrendingConferences(windowStart, windowEnd,
+                byVelocity.subList(0, Math.min(limit, byVelocity.size())),
+                byRating.subList(0, Math.min(limit, byRating.size())));
+    }
+
+    private static List<TrendingConference> rank(List<TrendingConference> ranking, TrendingConference entry,
+                                                  Comparator<TrendingConference> order, int capacity, boolean eligible) {
+        List<TrendingConference> ranked = new ArrayList<>(ranking.size() + 1);
+        for (TrendingConference current : ranking) {
+            if (!current.getConferenceId().equals(entry.getConferenceId())) {
+                ranked.add(current);
+            }
+        }
+        if (eligible) {
+            int position = Collections.binarySearch(ranked, entry, order);
+            ranked.add(position < 0 ? -position - 1 : position, entry);
+        }
+        if (ranked.size() > capacity) {
+            ranked.remove(ranked.size() - 1);
+        }
+        return ranked;
+    }
+}
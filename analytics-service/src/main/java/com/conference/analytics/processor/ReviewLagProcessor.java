@@ -0,0 +1,72 @@
+package com.conference.analytics.processor;
+
+import com.conference.conference.common.event.ReviewAddedEvent;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records {@code analytics.review.lag}, the time from a review's event being applied in
+ * conference-service until this topology processes it, from the headers the outbox relay adds.
+ * Window stores reach their queries at most {@code commit.interval.ms} later. Records pass through
+ * unchanged.
+ */
+@Slf4j
+public class ReviewLagProcessor implements FixedKeyProcessor<String, ReviewAddedEvent, ReviewAddedEvent> {
+
+    public static final String LAG_TIMER = "analytics.review.lag";
+    public static final String TRACE_ID_HEADER = "traceId";
+    public static final String EVENT_TIME_HEADER = "eventTime";
+
+    private final Timer lagTimer;
+    private FixedKeyProcessorContext<String, ReviewAddedEvent> context;
+
+    public ReviewLagProcessor(Timer lagTimer) {
+        this.lagTimer = lagTimer;
+    }
+
+    @Override
+    public void init(FixedKeyProcessorContext<String, ReviewAddedEvent> context) {
+        this.context = context;
+    }
+
+    @Override
+    public void process(FixedKeyRecord<String, ReviewAddedEvent> record) {
+        Long eventTime = eventTime(record.headers());
+        if (eventTime != null) {
+            long lag = System.currentTimeMillis() - eventTime;
+            lagTimer.record(Math.max(lag, 0), TimeUnit.MILLISECONDS);
+            if (log.isDebugEnabled()) {
+                log.debug("Review {} of conference {} reached the stream processor after {} ms [traceId={}]",
+                        record.value().getReviewId(), record.key(), lag, header(record.headers(), TRACE_ID_HEADER));
+            }
+        }
+        context.forward(record);
+    }
+
+    // A malformed header only costs the sample; throwing here would stop the stream thread.
+    private static Long eventTime(Headers headers) {
+        String eventTime = header(headers, EVENT_TIME_HEADER);
+        if (eventTime == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventTime);
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring malformed {} header '{}'", EVENT_TIME_HEADER, eventTime);
+            return null;
+        }
+    }
+
+    private static String header(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header == null || header.value() == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -1,17 +1,38 @@
 package com.conference.analytics.processor;
 
 import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.ReviewTotals;
+import com.conference.analytics.serde.ReviewAddedEventSerde;
+import com.conference.analytics.serde.ReviewStatsSerde;
+import com.conference.analytics.serde.ReviewTotalsSerde;
+import com.conference.analytics.serde.TrendingConferencesSerde;
 import com.conference.conference.common.event.ReviewAddedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
 import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.Suppressed.BufferConfig;
 import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+import org.apache.kafka.streams.state.WindowStore;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafkaStreams;
-import org.springframework.kafka.support.serializer.JsonSerde;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 
@@ -19,26 +40,130 @@ import java.time.Duration;
 @EnableKafkaStreams
 public class ReviewStreamsProcessor {
 
+    public static final String REVIEW_EVENTS_TOPIC = "review-events";
+    public static final String REVIEW_STATS_UPDATES_TOPIC = "review-stats-updates";
+    public static final String REVIEW_STATS_STORE = "review-stats-store";
+    public static final String REVIEW_TOTALS_STORE = "review-totals-store";
+    public static final String TRENDING_WINDOWS_STORE = "trending-windows-store";
+    public static final String TRENDING_CANDIDATES_STORE = "trending-candidates-store";
+    public static final String TRENDING_STORE = "trending-store";
+    public static final Duration REVIEW_STATS_WINDOW = Duration.ofSeconds(5);
+    public static final Duration RESOLUTION_GRACE = Duration.ofMinutes(1);
+
     @Bean
-    public KStream<String, ReviewAddedEvent> process(StreamsBuilder builder) {
-        JsonSerde<ReviewAddedEvent> reviewAddedEventSerde = new JsonSerde<>(ReviewAddedEvent.class);
-        JsonSerde<ReviewStats> reviewStatsSerde = new JsonSerde<>(ReviewStats.class);
+    public KStream<String, ReviewAddedEvent> process(StreamsBuilder builder,
+                                                     MeterRegistry meterRegistry,
+                                                     @Value("${analytics.window.emission:ON_UPDATE}") WindowEmission emission,
+                                                     @Value("${analytics.window.grace:0s}") Duration grace,
+                                                     @Value("${analytics.window.retention:10m}") Duration retention,
+                                                     @Value("${analytics.window.suppression-buffer:64MB}") DataSize suppressionBuffer) {
+        ReviewAddedEventSerde reviewAddedEventSerde = new ReviewAddedEventSerde();
+        ReviewStatsSerde reviewStatsSerde = new ReviewStatsSerde();
+
+        // Records are keyed by conferenceId upstream, so grouping by key keeps each
+        // conference's windows on the partition (and stream task) that owns it.
+        // processValues keeps the key, so the grouping below still needs no repartition.
+        Timer lagTimer = meterRegistry.timer(ReviewLagProcessor.LAG_TIMER);
+        KStream<String, ReviewAddedEvent> stream = builder.stream(REVIEW_EVENTS_TOPIC,
+                        Consumed.with(Serdes.String(), reviewAddedEventSerde))
+                .processValues(() -> new ReviewLagProcessor(lagTimer));
 
-        KStream<String, ReviewAddedEvent> stream = builder.stream("review-events",
-                Consumed.with(Serdes.String(), reviewAddedEventSerde));
+        KGroupedStream<String, ReviewAddedEvent> reviewsByConference =
+                stream.groupByKey(Grouped.with(Serdes.String(), reviewAddedEventSerde));
 
-        stream.groupByKey()
-                .windowedBy(TimeWindows.of(Duration.ofSeconds(5)))
+        // The store must keep at least the 30 seconds the window endpoints read, and Kafka Streams
+        // rejects a retention shorter than the window plus its grace period.
+        KTable<Windowed<String>, ReviewStats> windows = reviewsByConference
+                .windowedBy(TimeWindows.ofSizeAndGrace(REVIEW_STATS_WINDOW, grace))
                 .aggregate(
-                        ReviewStats::new,
-                        (key, value, aggregate) -> {
-                            aggregate.setCount(aggregate.getCount() + 1);
-                            aggregate.setTotalStars(aggregate.getTotalStars() + value.getStars());
-                            return aggregate;
-                        },
-                        Materialized.as("review-stats-store")
+                        () -> ReviewStats.EMPTY,
+                        ReviewStreamsProcessor::addReview,
+                        Materialized.<String, ReviewStats, WindowStore<Bytes, byte[]>>as(REVIEW_STATS_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(reviewStatsSerde)
+                                .withRetention(retention)
                 );
+        if (emission == WindowEmission.ON_WINDOW_CLOSE) {
+            // untilWindowCloses only takes a buffer that stops the application when it is full. A window
+            // is first buffered at its first review, so holding each one for the window size plus grace
+            // releases it once it has closed, and a full buffer emits its oldest windows early instead.
+            windows = windows.suppress(Suppressed.untilTimeLimit(REVIEW_STATS_WINDOW.plus(grace),
+                    BufferConfig.maxBytes(suppressionBuffer.toBytes()).emitEarlyWhenFull()));
+        }
+
+        // Feeds the live dashboards with either every cache flush of a window or only its final value.
+        windows.toStream()
+                .map((window, stats) -> KeyValue.pair(window.key(),
+                        stats.withWindow(window.window().startTime(), window.window().endTime())))
+                .to(REVIEW_STATS_UPDATES_TOPIC, Produced.with(Serdes.String(), reviewStatsSerde));
+
+        for (WindowResolution resolution : WindowResolution.values()) {
+            reviewsByConference
+                    .windowedBy(TimeWindows.ofSizeAndGrace(resolution.getSize(), RESOLUTION_GRACE))
+                    .aggregate(
+                            () -> ReviewStats.EMPTY,
+                            ReviewStreamsProcessor::addReview,
+                            Materialized.<String, ReviewStats, WindowStore<Bytes, byte[]>>as(resolution.getStoreName())
+                                    .withKeySerde(Serdes.String())
+                                    .withValueSerde(reviewStatsSerde)
+                                    .withRetention(resolution.getRetention())
+                    );
+        }
+
+        reviewsByConference.aggregate(
+                () -> ReviewTotals.EMPTY,
+                ReviewStreamsProcessor::addReview,
+                Materialized.<String, ReviewTotals, KeyValueStore<Bytes, byte[]>>as(REVIEW_TOTALS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(new ReviewTotalsSerde())
+        );
 
         return stream;
     }
+
+    /**
+     * Trending conferences: each review updates its conference's stats in every hopping window that
+     * covers it. The tasks holding those stats keep a top-N per window and forward only changes of
+     * their candidates, re-keyed by window start, so that one task merges all candidates of a window.
+     */
+    @Bean
+    public KStream<Long, ReviewStats> trendingConferences(KStream<String, ReviewAddedEvent> process,
+                                                          StreamsBuilder builder,
+                                                          @Value("${analytics.trending.window:10m}") Duration window,
+                                                          @Value("${analytics.trending.advance:1m}") Duration advance,
+                                                          @Value("${analytics.trending.retention:10m}") Duration retention,
+                                                          @Value("${analytics.trending.capacity:50}") int capacity,
+                                                          @Value("${analytics.trending.min-reviews:3}") long minReviews) {
+        ReviewStatsSerde reviewStatsSerde = new ReviewStatsSerde();
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(TRENDING_CANDIDATES_STORE),
+                Serdes.Long(), new TrendingConferencesSerde()));
+        builder.addStateStore(Stores.keyValueStoreBuilder(Stores.persistentKeyValueStore(TRENDING_STORE),
+                Serdes.Long(), new TrendingConferencesSerde()));
+
+        KStream<Long, ReviewStats> windowUpdates = process
+                .groupByKey(Grouped.with(Serdes.String(), new ReviewAddedEventSerde()))
+                .windowedBy(TimeWindows.ofSizeWithNoGrace(window).advanceBy(advance))
+                .aggregate(
+                        () -> ReviewStats.EMPTY,
+                        ReviewStreamsProcessor::addReview,
+                        Materialized.<String, ReviewStats, WindowStore<Bytes, byte[]>>as(TRENDING_WINDOWS_STORE)
+                                .withKeySerde(Serdes.String())
+                                .withValueSerde(reviewStatsSerde)
+                                .withRetention(window)
+                )
+                .toStream()
+                .process(() -> new TrendingCandidatesProcessor(window, capacity, minReviews), TRENDING_CANDIDATES_STORE)
+                .repartition(Repartitioned.with(Serdes.Long(), reviewStatsSerde).withName("trending-by-window"));
+
+        windowUpdates.process(() -> new TrendingConferencesProcessor(window, retention, capacity, minReviews), TRENDING_STORE);
+        return windowUpdates;
+    }
+
+    private static ReviewStats addReview(String conferenceId, ReviewAddedEvent review, ReviewStats stats) {
+        return stats.add(conferenceId, review.getStars());
+    }
+
+    private static ReviewTotals addReview(String conferenceId, ReviewAddedEvent review, ReviewTotals totals) {
+        return totals.add(conferenceId, review.getStars());
+    }
 }
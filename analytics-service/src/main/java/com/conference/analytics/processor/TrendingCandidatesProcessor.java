@@ -0,0 +1,61 @@
+package com.conference.analytics.processor;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.TrendingConferences;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * First step of the trending rankings, on the tasks that aggregate the per-conference windows:
+ * ranks this task's conferences per window and forwards an update, keyed by window start, only
+ * for a conference that is or just was one of this task's candidates. Conferences are partitioned
+ * by id, so the leaders of a window are among the candidates of some task, and
+ * {@link TrendingConferencesProcessor} merges the same rankings from far fewer records.
+ */
+public class TrendingCandidatesProcessor implements Processor<Windowed<String>, ReviewStats, Long, ReviewStats> {
+
+    private final Duration windowSize;
+    private final int capacity;
+    private final long minReviews;
+    private ProcessorContext<Long, ReviewStats> context;
+    private KeyValueStore<Long, TrendingConferences> store;
+
+    public TrendingCandidatesProcessor(Duration windowSize, int capacity, long minReviews) {
+        this.windowSize = windowSize;
+        this.capacity = capacity;
+        this.minReviews = minReviews;
+    }
+
+    @Override
+    public void init(ProcessorContext<Long, ReviewStats> context) {
+        this.context = context;
+        store = context.getStateStore(ReviewStreamsProcessor.TRENDING_CANDIDATES_STORE);
+        // The windows have no grace period, so a window gets no more updates once it ended.
+        context.schedule(windowSize, PunctuationType.STREAM_TIME,
+                streamTime -> TrendingConferencesProcessor.deleteWindows(store, streamTime - windowSize.toMillis()));
+    }
+
+    @Override
+    public void process(Record<Windowed<String>, ReviewStats> record) {
+        long windowStart = record.key().window().start();
+        String conferenceId = record.value().getConferenceId();
+        TrendingConferences before = store.get(windowStart);
+        if (before == null) {
+            Instant start = Instant.ofEpochMilli(windowStart);
+            before = TrendingConferences.empty(start, start.plus(windowSize));
+        }
+        TrendingConferences after = before.update(record.value(), capacity, minReviews);
+        // A candidate that drops out is forwarded once more, so the merged rankings see its lower stats.
+        if (before.contains(conferenceId) || after.contains(conferenceId)) {
+            store.put(windowStart, after);
+            context.forward(record.withKey(windowStart));
+        }
+    }
+}
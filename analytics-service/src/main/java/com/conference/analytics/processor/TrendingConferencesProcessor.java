@@ -0,0 +1,73 @@
+package com.conference.analytics.processor;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.TrendingConferences;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Merges the candidates forwarded by {@link TrendingCandidatesProcessor}, keyed by window start,
+ * into the {@link TrendingConferences} of that window. All candidates of a window arrive on the
+ * same partition, so each window has a single ranking. Windows are dropped from the store once they ended {@code retention} ago in
+ * stream time.
+ */
+public class TrendingConferencesProcessor implements Processor<Long, ReviewStats, Void, Void> {
+
+    private final Duration windowSize;
+    private final Duration retention;
+    private final int capacity;
+    private final long minReviews;
+    private KeyValueStore<Long, TrendingConferences> store;
+
+    public TrendingConferencesProcessor(Duration windowSize, Duration retention, int capacity, long minReviews) {
+        this.windowSize = windowSize;
+        this.retention = retention;
+        this.capacity = capacity;
+        this.minReviews = minReviews;
+    }
+
+    @Override
+    public void init(ProcessorContext<Void, Void> context) {
+        store = context.getStateStore(ReviewStreamsProcessor.TRENDING_STORE);
+        context.schedule(windowSize, PunctuationType.STREAM_TIME, this::expire);
+    }
+
+    @Override
+    public void process(Record<Long, ReviewStats> record) {
+        TrendingConferences trending = store.get(record.key());
+        if (trending == null) {
+            Instant windowStart = Instant.ofEpochMilli(record.key());
+            trending = TrendingConferences.empty(windowStart, windowStart.plus(windowSize));
+        }
+        store.put(record.key(), trending.update(record.value(), capacity, minReviews));
+    }
+
+    private void expire(long streamTime) {
+        deleteWindows(store, streamTime - windowSize.toMillis() - retention.toMillis());
+    }
+
+    /**
+     * Deletes the rankings of windows that started at or before {@code cutoff}.
+     */
+    static void deleteWindows(KeyValueStore<Long, TrendingConferences> store, long cutoff) {
+        List<Long> expired = new ArrayList<>();
+        // Long keys serialize big-endian, so for epoch timestamps byte order is numeric order.
+        try (KeyValueIterator<Long, TrendingConferences> iterator = store.range(0L, cutoff)) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, TrendingConferences> next = iterator.next();
+                expired.add(next.key);
+            }
+        }
+        expired.forEach(store::delete);
+    }
+}
@@ -0,0 +1,19 @@
+package com.conference.analytics.processor;
+
+/**
+ * When the 5-second window aggregate forwards its results downstream, to the
+ * {@code review-stats-updates} topic. The state store itself is always queryable.
+ */
+public enum WindowEmission {
+    /**
+     * Forward the latest value of each updated window whenever the record cache is flushed, at the
+     * latest every {@code commit.interval.ms}.
+     */
+    ON_UPDATE,
+    /**
+     * Forward each window once, after it ends and its grace period has passed. Windows wait in a
+     * buffer of {@code analytics.window.suppression-buffer} bytes; when it fills up, the oldest
+     * windows are forwarded early, and such a window is forwarded again with its final values.
+     */
+    ON_WINDOW_CLOSE
+}
@@ -0,0 +1,95 @@
+package com.conference.analytics.processor;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Coarse window resolutions kept next to the 5-second review-stats-store. Windows of one
+ * resolution tile the time axis, so a range query can sum whole windows: the coarsest that fit in
+ * the range, and finer ones towards its edges.
+ */
+public enum WindowResolution {
+    MINUTE(Duration.ofMinutes(1), Duration.ofDays(1), "review-stats-1m-store"),
+    HOUR(Duration.ofHours(1), Duration.ofDays(30), "review-stats-1h-store"),
+    DAY(Duration.ofDays(1), Duration.ofDays(365), "review-stats-1d-store");
+
+    private final Duration size;
+    private final Duration retention;
+    private final String storeName;
+
+    WindowResolution(Duration size, Duration retention, String storeName) {
+        this.size = size;
+        this.retention = retention;
+        this.storeName = storeName;
+    }
+
+    public Duration getSize() {
+        return size;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public String getStoreName() {
+        return storeName;
+    }
+
+    public Instant windowStartOf(Instant instant) {
+        long sizeMs = size.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(instant.toEpochMilli(), sizeMs) * sizeMs);
+    }
+
+    private Instant windowStartAtOrAfter(Instant instant) {
+        Instant start = windowStartOf(instant);
+        return start.equals(instant) ? start : start.plus(size);
+    }
+
+    /**
+     * Splits [from, to) into spans of whole windows, sorted by time: the coarsest resolution that
+     * fits in the middle and finer ones towards the edges, each only where it is still retained.
+     * The spans never reach outside the range, so an edge shorter than a minute, or older than the
+     * retention of every resolution fine enough for it, is left out. A range reaching {@code now}
+     * takes the current minute whole, as it holds nothing later than now.
+     */
+    public static List<Span> cover(Instant from, Instant to, Instant now) {
+        Instant end = to.isBefore(now) ? to : MINUTE.windowStartAtOrAfter(now);
+        List<Span> spans = new ArrayList<>();
+        cover(from, end, now, values().length - 1, spans);
+        spans.sort(Comparator.comparing(Span::getFrom));
+        return spans;
+    }
+
+    private static void cover(Instant from, Instant to, Instant now, int coarsest, List<Span> spans) {
+        for (int i = coarsest; i >= 0; i--) {
+            WindowResolution resolution = values()[i];
+            Instant start = resolution.windowStartAtOrAfter(from);
+            Instant retained = resolution.windowStartAtOrAfter(now.minus(resolution.retention));
+            if (start.isBefore(retained)) {
+                start = retained;
+            }
+            Instant end = resolution.windowStartOf(to);
+            if (start.isBefore(end)) {
+                spans.add(new Span(resolution, start, end));
+                cover(from, start, now, i - 1, spans);
+                cover(end, to, now, i - 1, spans);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Whole windows of one resolution starting in [from, to).
+     */
+    @Value
+    public static class Span {
+        WindowResolution resolution;
+        Instant from;
+        Instant to;
+    }
+}
@@ -0,0 +1,335 @@
+package com.conference.analytics.query;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.ReviewTotals;
+import com.conference.analytics.model.TrendingConferences;
+import com.conference.analytics.processor.ReviewStreamsProcessor;
+import com.conference.analytics.processor.WindowResolution;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreType;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Queries the analytics state stores across every analytics-service instance. Per-conference
+ * lookups are routed to the instance that owns the key; fleet-wide lookups fan out to all
+ * instances hosting the store and merge the results.
+ */
+@Service
+public class ReviewStatsQueryService {
+
+    public static final String INTERNAL_PATH = "/internal/analytics/reviews";
+
+    private final StreamsBuilderFactoryBean factoryBean;
+    private final RestTemplate restTemplate;
+    private final ExecutorService executor;
+    private final HostInfo self;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper;
+    private final Duration trendingWindow;
+    private final Duration trendingAdvance;
+
+    public ReviewStatsQueryService(StreamsBuilderFactoryBean factoryBean,
+                                   @Qualifier("interactiveQueryRestTemplate") RestTemplate restTemplate,
+                                   @Qualifier("interactiveQueryExecutor") ExecutorService executor,
+                                   @Value("${spring.kafka.streams.properties.application.server}") String applicationServer,
+                                   @Value("${analytics.query.timeout:2s}") Duration timeout,
+                                   ObjectMapper objectMapper,
+                                   @Value("${analytics.trending.window:10m}") Duration trendingWindow,
+                                   @Value("${analytics.trending.advance:1m}") Duration trendingAdvance) {
+        this.factoryBean = factoryBean;
+        this.restTemplate = restTemplate;
+        this.executor = executor;
+        this.self = HostInfo.buildFromEndpoint(applicationServer);
+        this.timeout = timeout;
+        this.objectMapper = objectMapper;
+        this.trendingWindow = trendingWindow;
+        this.trendingAdvance = trendingAdvance;
+    }
+
+    /**
+     * Returns the 5-second windows of every conference, across the fleet. Other instances are
+     * queried up front, so their failures still map to an error status; this instance's windows
+     * are then written to the response straight from the store iterator.
+     */
+    public StreamingResponseBody streamAll(Instant from, Instant to) {
+        Collection<StreamsMetadata> instances = kafkaStreams().streamsMetadataForStore(ReviewStreamsProcessor.REVIEW_STATS_STORE);
+        if (instances.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "review-stats-store is not available yet");
+        }
+
+        List<CompletableFuture<ReviewStats[]>> results = instances.stream()
+                .map(StreamsMetadata::hostInfo)
+                .filter(host -> !isSelf(host))
+                .map(host -> withTimeout(CompletableFuture.supplyAsync(() -> fetchRemote(host, ReviewStats[].class,
+                        INTERNAL_PATH + "/window?from={from}&to={to}", from.toEpochMilli(), to.toEpochMilli()), executor)))
+                .toList();
+        ReadOnlyWindowStore<String, ReviewStats> local = instances.stream().map(StreamsMetadata::hostInfo).anyMatch(this::isSelf)
+                ? localWindowStore(ReviewStreamsProcessor.REVIEW_STATS_STORE)
+                : null;
+
+        List<ReviewStats[]> remote = new ArrayList<>(results.size());
+        for (CompletableFuture<ReviewStats[]> result : results) {
+            remote.add(await(result));
+        }
+
+        return out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.writeStartArray();
+                for (ReviewStats[] stats : remote) {
+                    for (ReviewStats window : stats) {
+                        json.writeObject(window);
+                    }
+                }
+                if (local != null) {
+                    writeWindows(json, local, from, to);
+                }
+                json.writeEndArray();
+            }
+        };
+    }
+
+    public List<ReviewStats> findByConference(String conferenceId, Instant from, Instant to) {
+        return queryOwner(ReviewStreamsProcessor.REVIEW_STATS_STORE, conferenceId,
+                () -> findByConferenceLocal(conferenceId, from, to),
+                owner -> Arrays.asList(fetchRemote(owner, ReviewStats[].class,
+                        INTERNAL_PATH + "/window/{conferenceId}?from={from}&to={to}", conferenceId, from.toEpochMilli(), to.toEpochMilli())));
+    }
+
+    /**
+     * Returns the windows covering [from, to), coarsest in the middle and finer towards the edges,
+     * so entries may differ in size. No window reaches outside the range, except that a range
+     * reaching now includes the current minute.
+     */
+    public List<ReviewStats> findSeries(String conferenceId, Instant from, Instant to) {
+        return findSeries(conferenceId, WindowResolution.cover(from, to, Instant.now()));
+    }
+
+    /**
+     * Sums the windows covering [from, to). The result's {@code windowStart} and {@code windowEnd}
+     * give the period actually covered, which may start later and end earlier than requested when
+     * an edge is finer than a minute or no longer retained at a fine enough resolution.
+     */
+    public ReviewStats findRange(String conferenceId, Instant from, Instant to) {
+        List<WindowResolution.Span> spans = WindowResolution.cover(from, to, Instant.now());
+        long count = 0;
+        long totalStars = 0;
+        long[] histogram = new long[ReviewTotals.MAX_STARS];
+        for (ReviewStats window : findSeries(conferenceId, spans)) {
+            count += window.getCount();
+            totalStars += window.getTotalStars();
+            long[] windowHistogram = window.getStarHistogram();
+            for (int i = 0; i < histogram.length && i < windowHistogram.length; i++) {
+                histogram[i] += windowHistogram[i];
+            }
+        }
+        Instant windowStart = spans.isEmpty() ? from : spans.get(0).getFrom();
+        Instant windowEnd = spans.isEmpty() ? from : spans.get(spans.size() - 1).getTo();
+        return new ReviewStats(conferenceId, count, totalStars, count == 0 ? 0 : (double) totalStars / count,
+                histogram, windowStart, windowEnd.isAfter(to) ? to : windowEnd);
+    }
+
+    /**
+     * Returns the ranking of the oldest trending window that still covers {@code now}, which spans
+     * nearly the whole trending window length up to now.
+     */
+    public TrendingConferences findTrending(Instant now, int limit) {
+        long windowStart = trendingWindowStart(now);
+        return queryOwner(ReviewStreamsProcessor.TRENDING_STORE, windowStart, Serdes.Long().serializer(),
+                () -> findTrendingLocal(windowStart, limit),
+                owner -> fetchRemote(owner, TrendingConferences.class,
+                        INTERNAL_PATH + "/trending?windowStart={windowStart}&limit={limit}", windowStart, limit));
+    }
+
+    public ReviewTotals findTotals(String conferenceId) {
+        return queryOwner(ReviewStreamsProcessor.REVIEW_TOTALS_STORE, conferenceId,
+                () -> findTotalsLocal(conferenceId),
+                owner -> fetchRemote(owner, ReviewTotals.class, INTERNAL_PATH + "/totals/{conferenceId}", conferenceId));
+    }
+
+    public StreamingResponseBody streamAllLocal(Instant from, Instant to) {
+        ReadOnlyWindowStore<String, ReviewStats> store = localWindowStore(ReviewStreamsProcessor.REVIEW_STATS_STORE);
+        return out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.writeStartArray();
+                writeWindows(json, store, from, to);
+                json.writeEndArray();
+            }
+        };
+    }
+
+    public List<ReviewStats> findByConferenceLocal(String conferenceId, Instant from, Instant to) {
+        return fetchWindows(ReviewStreamsProcessor.REVIEW_STATS_STORE, ReviewStreamsProcessor.REVIEW_STATS_WINDOW, conferenceId, from, to);
+    }
+
+    /**
+     * Returns the windows of one resolution that start in [from, to).
+     */
+    public List<ReviewStats> findSeriesLocal(String conferenceId, WindowResolution resolution, Instant from, Instant to) {
+        Instant lastStart = to.minusMillis(1);
+        if (lastStart.isBefore(from)) {
+            return List.of();
+        }
+        return fetchWindows(resolution.getStoreName(), resolution.getSize(), conferenceId, from, lastStart);
+    }
+
+    public TrendingConferences findTrendingLocal(long windowStart, int limit) {
+        TrendingConferences trending = localStore(ReviewStreamsProcessor.TRENDING_STORE,
+                QueryableStoreTypes.<Long, TrendingConferences>keyValueStore()).get(windowStart);
+        if (trending == null) {
+            Instant start = Instant.ofEpochMilli(windowStart);
+            return TrendingConferences.empty(start, start.plus(trendingWindow));
+        }
+        return trending.limit(limit);
+    }
+
+    public ReviewTotals findTotalsLocal(String conferenceId) {
+        ReviewTotals totals = localStore(ReviewStreamsProcessor.REVIEW_TOTALS_STORE, QueryableStoreTypes.<String, ReviewTotals>keyValueStore())
+                .get(conferenceId);
+        return totals == null ? ReviewTotals.empty(conferenceId) : totals;
+    }
+
+    private List<ReviewStats> findSeries(String conferenceId, List<WindowResolution.Span> spans) {
+        List<ReviewStats> series = new ArrayList<>();
+        for (WindowResolution.Span span : spans) {
+            WindowResolution resolution = span.getResolution();
+            series.addAll(queryOwner(resolution.getStoreName(), conferenceId,
+                    () -> findSeriesLocal(conferenceId, resolution, span.getFrom(), span.getTo()),
+                    owner -> Arrays.asList(fetchRemote(owner, ReviewStats[].class,
+                            INTERNAL_PATH + "/series/{conferenceId}?resolution={resolution}&from={from}&to={to}",
+                            conferenceId, resolution, span.getFrom().toEpochMilli(), span.getTo().toEpochMilli()))));
+        }
+        return series;
+    }
+
+    private List<ReviewStats> fetchWindows(String storeName, Duration windowSize, String conferenceId, Instant from, Instant to) {
+        List<ReviewStats> stats = new ArrayList<>();
+        try (WindowStoreIterator<ReviewStats> iterator = localWindowStore(storeName).fetch(conferenceId, from, to)) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, ReviewStats> next = iterator.next();
+                Instant windowStart = Instant.ofEpochMilli(next.key);
+                stats.add(next.value.withWindow(windowStart, windowStart.plus(windowSize)));
+            }
+        }
+        return stats;
+    }
+
+    private void writeWindows(JsonGenerator json, ReadOnlyWindowStore<String, ReviewStats> store, Instant from, Instant to) throws IOException {
+        try (KeyValueIterator<Windowed<String>, ReviewStats> iterator = store.fetchAll(from, to)) {
+            while (iterator.hasNext()) {
+                KeyValue<Windowed<String>, ReviewStats> next = iterator.next();
+                json.writeObject(next.value.withWindow(next.key.window().startTime(), next.key.window().endTime()));
+            }
+        }
+    }
+
+    private long trendingWindowStart(Instant now) {
+        long advance = trendingAdvance.toMillis();
+        return Math.floorDiv(now.toEpochMilli(), advance) * advance - trendingWindow.toMillis() + advance;
+    }
+
+    private <T> T queryOwner(String storeName, String conferenceId, Supplier<T> local, Function<HostInfo, T> remote) {
+        return queryOwner(storeName, conferenceId, Serdes.String().serializer(), local, remote);
+    }
+
+    private <K, T> T queryOwner(String storeName, K key, Serializer<K> keySerializer, Supplier<T> local, Function<HostInfo, T> remote) {
+        KeyQueryMetadata metadata = kafkaStreams().queryMetadataForKey(storeName, key, keySerializer);
+        if (metadata == null || KeyQueryMetadata.NOT_AVAILABLE.equals(metadata)) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "No instance currently owns key " + key + " of " + storeName);
+        }
+
+        HostInfo owner = metadata.activeHost();
+        if (isSelf(owner)) {
+            return local.get();
+        }
+        return await(withTimeout(CompletableFuture.supplyAsync(() -> remote.apply(owner), executor)));
+    }
+
+    private ReadOnlyWindowStore<String, ReviewStats> localWindowStore(String storeName) {
+        return localStore(storeName, QueryableStoreTypes.windowStore());
+    }
+
+    private <T> T localStore(String storeName, QueryableStoreType<T> storeType) {
+        try {
+            return kafkaStreams().store(StoreQueryParameters.fromNameAndType(storeName, storeType));
+        } catch (InvalidStateStoreException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, storeName + " is not queryable", e);
+        }
+    }
+
+    private KafkaStreams kafkaStreams() {
+        KafkaStreams kafkaStreams = factoryBean.getKafkaStreams();
+        if (kafkaStreams == null) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Kafka Streams has not started");
+        }
+        return kafkaStreams;
+    }
+
+    private boolean isSelf(HostInfo host) {
+        return self.equals(host);
+    }
+
+    private <T> T fetchRemote(HostInfo host, Class<T> responseType, String path, Object... uriVariables) {
+        T response = restTemplate.getForObject(
+                "http://" + host.host() + ":" + host.port() + path, responseType, uriVariables);
+        if (response == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Empty response from " + host);
+        }
+        return response;
+    }
+
+    private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future) {
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "Analytics instance did not answer within " + timeout, e);
+            }
+            if (e.getCause() instanceof ResponseStatusException cause) {
+                throw cause;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Analytics instance query failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.conference.analytics.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Primitives shared by the binary serdes. Every record starts with a version byte; a leading
+ * '{' marks a legacy JSON record, which callers hand to their JSON fallback instead.
+ * Records are encoded in one pass into a per-thread scratch buffer sized from an upper bound, then
+ * copied into the exactly-sized array the serializer has to return; Kafka keeps that array, so it
+ * is the only allocation per record.
+ */
+final class BinaryFormat {
+
+    static final byte VERSION_1 = 1;
+    static final byte VERSION_2 = 2;
+
+    private static final byte JSON_OBJECT_START = '{';
+    private static final int NULL_LENGTH = -1;
+    private static final int SCRATCH_SIZE = 4 * 1024;
+    // Larger records, such as reviews with a long text, get a buffer of their own instead of growing the scratch for good.
+    private static final int MAX_SCRATCH_SIZE = 64 * 1024;
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(SCRATCH_SIZE));
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Returns this thread's scratch buffer, cleared, or a new one when {@code maxSize} does not fit.
+     */
+    static ByteBuffer scratch(int maxSize) {
+        ByteBuffer buffer = SCRATCH.get();
+        if (maxSize > buffer.capacity()) {
+            if (maxSize > MAX_SCRATCH_SIZE) {
+                return ByteBuffer.allocate(maxSize);
+            }
+            buffer = ByteBuffer.allocate(MAX_SCRATCH_SIZE);
+            SCRATCH.set(buffer);
+        }
+        return buffer.clear();
+    }
+
+    static byte[] toArray(ByteBuffer buffer) {
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    static boolean isJson(byte[] data) {
+        return data.length > 0 && data[0] == JSON_OBJECT_START;
+    }
+
+    static void checkVersion(ByteBuffer buffer, String type) {
+        byte version = buffer.get();
+        if (version != VERSION_1) {
+            throw new SerializationException("Unsupported " + type + " format version " + version);
+        }
+    }
+
+    static byte checkVersion(ByteBuffer buffer, String type, byte latest) {
+        byte version = buffer.get();
+        if (version < VERSION_1 || version > latest) {
+            throw new SerializationException("Unsupported " + type + " format version " + version);
+        }
+        return version;
+    }
+
+    static int histogramSize(long[] histogram) {
+        return Integer.BYTES + histogram.length * Long.BYTES;
+    }
+
+    static void putHistogram(ByteBuffer buffer, long[] histogram) {
+        buffer.putInt(histogram.length);
+        for (long bucket : histogram) {
+            buffer.putLong(bucket);
+        }
+    }
+
+    static long[] getHistogram(ByteBuffer buffer, int minBuckets) {
+        int buckets = buffer.getInt();
+        long[] histogram = new long[Math.max(buckets, minBuckets)];
+        for (int i = 0; i < buckets; i++) {
+            histogram[i] = buffer.getLong();
+        }
+        return histogram;
+    }
+
+    static double average(long total, long count) {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    // A UTF-16 char takes at most 3 bytes of UTF-8; a surrogate pair takes 4 for its 2 chars.
+    static int maxStringSize(String value) {
+        return Integer.BYTES + (value == null ? 0 : value.length() * MAX_UTF8_BYTES_PER_CHAR);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(NULL_LENGTH);
+            return;
+        }
+        int lengthPosition = buffer.position();
+        buffer.position(lengthPosition + Integer.BYTES);
+        putUtf8(buffer, value);
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    static int timestampSize(Object value) {
+        return value == null ? 1 : 1 + Long.BYTES + Integer.BYTES;
+    }
+
+    static void putLocalDateTime(ByteBuffer buffer, LocalDateTime value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+
+    static LocalDateTime getLocalDateTime(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    static void putInstant(ByteBuffer buffer, Instant value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        buffer.putLong(value.getEpochSecond());
+        buffer.putInt(value.getNano());
+    }
+
+    static Instant getInstant(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        return Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+    }
+
+    private static void putUtf8(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    // Same replacement String.getBytes(UTF_8) uses for unpaired surrogates.
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.conference.analytics.serde;
+
+import com.conference.conference.common.event.ReviewAddedEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Binary serde for {@link ReviewAddedEvent}. Layout (version 1): version, reviewId, conferenceId,
+ * date, text, stars. JSON records written before the switch are still readable.
+ */
+public class ReviewAddedEventSerde implements Serde<ReviewAddedEvent>, Serializer<ReviewAddedEvent>, Deserializer<ReviewAddedEvent> {
+
+    private final JsonDeserializer<ReviewAddedEvent> jsonDeserializer = new JsonDeserializer<>(ReviewAddedEvent.class, false);
+
+    @Override
+    public byte[] serialize(String topic, ReviewAddedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        int maxSize = 1
+                + BinaryFormat.maxStringSize(event.getReviewId())
+                + BinaryFormat.maxStringSize(event.getConferenceId())
+                + BinaryFormat.timestampSize(event.getDate())
+                + BinaryFormat.maxStringSize(event.getText())
+                + Integer.BYTES;
+        ByteBuffer buffer = BinaryFormat.scratch(maxSize);
+        buffer.put(BinaryFormat.VERSION_1);
+        BinaryFormat.putString(buffer, event.getReviewId());
+        BinaryFormat.putString(buffer, event.getConferenceId());
+        BinaryFormat.putLocalDateTime(buffer, event.getDate());
+        BinaryFormat.putString(buffer, event.getText());
+        buffer.putInt(event.getStars());
+        return BinaryFormat.toArray(buffer);
+    }
+
+    @Override
+    public ReviewAddedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (BinaryFormat.isJson(data)) {
+            return jsonDeserializer.deserialize(topic, data);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        BinaryFormat.checkVersion(buffer, "ReviewAddedEvent");
+        return new ReviewAddedEvent(
+                BinaryFormat.getString(buffer),
+                BinaryFormat.getString(buffer),
+                BinaryFormat.getLocalDateTime(buffer),
+                BinaryFormat.getString(buffer),
+                buffer.getInt()
+        );
+    }
+
+    @Override
+    public ReviewAddedEvent deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public Serializer<ReviewAddedEvent> serializer() {
+        return this;
+    }
+
+    @Override
+    public Deserializer<ReviewAddedEvent> deserializer() {
+        return this;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,101 @@
+package com.conference.analytics.serde;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.ReviewTotals;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Binary serde for {@link ReviewStats} state store values, changelog records and live updates.
+ * Layout (version 2): version, conferenceId, count, totalStars, averageStars, histogram length,
+ * histogram buckets, windowStart, windowEnd. Version 1 records and JSON values already in the
+ * changelog are still readable; they carry no histogram and no maintained average, so the
+ * average is recomputed and the histogram left empty.
+ */
+public class ReviewStatsSerde implements Serde<ReviewStats>, Serializer<ReviewStats>, Deserializer<ReviewStats> {
+
+    private final JsonDeserializer<ReviewStats> jsonDeserializer = new JsonDeserializer<>(ReviewStats.class, false);
+
+    @Override
+    public byte[] serialize(String topic, ReviewStats stats) {
+        if (stats == null) {
+            return null;
+        }
+        long[] histogram = stats.getStarHistogram();
+        int maxSize = 1
+                + BinaryFormat.maxStringSize(stats.getConferenceId())
+                + Long.BYTES
+                + Long.BYTES
+                + Double.BYTES
+                + BinaryFormat.histogramSize(histogram)
+                + BinaryFormat.timestampSize(stats.getWindowStart())
+                + BinaryFormat.timestampSize(stats.getWindowEnd());
+        ByteBuffer buffer = BinaryFormat.scratch(maxSize);
+        buffer.put(BinaryFormat.VERSION_2);
+        BinaryFormat.putString(buffer, stats.getConferenceId());
+        buffer.putLong(stats.getCount());
+        buffer.putLong(stats.getTotalStars());
+        buffer.putDouble(stats.getAverageStars());
+        BinaryFormat.putHistogram(buffer, histogram);
+        BinaryFormat.putInstant(buffer, stats.getWindowStart());
+        BinaryFormat.putInstant(buffer, stats.getWindowEnd());
+        return BinaryFormat.toArray(buffer);
+    }
+
+    @Override
+    public ReviewStats deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (BinaryFormat.isJson(data)) {
+            ReviewStats legacy = jsonDeserializer.deserialize(topic, data);
+            return new ReviewStats(legacy.getConferenceId(), legacy.getCount(), legacy.getTotalStars(),
+                    BinaryFormat.average(legacy.getTotalStars(), legacy.getCount()), new long[ReviewTotals.MAX_STARS],
+                    legacy.getWindowStart(), legacy.getWindowEnd());
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = BinaryFormat.checkVersion(buffer, "ReviewStats", BinaryFormat.VERSION_2);
+        String conferenceId = BinaryFormat.getString(buffer);
+        long count = buffer.getLong();
+        long totalStars = buffer.getLong();
+        double averageStars = buffer.getDouble();
+        long[] histogram;
+        if (version == BinaryFormat.VERSION_1) {
+            averageStars = BinaryFormat.average(totalStars, count);
+            histogram = new long[ReviewTotals.MAX_STARS];
+        } else {
+            histogram = BinaryFormat.getHistogram(buffer, ReviewTotals.MAX_STARS);
+        }
+        return new ReviewStats(conferenceId, count, totalStars, averageStars, histogram,
+                BinaryFormat.getInstant(buffer), BinaryFormat.getInstant(buffer));
+    }
+
+    @Override
+    public ReviewStats deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public Serializer<ReviewStats> serializer() {
+        return this;
+    }
+
+    @Override
+    public Deserializer<ReviewStats> deserializer() {
+        return this;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
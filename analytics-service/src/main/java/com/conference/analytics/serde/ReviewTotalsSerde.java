@@ -0,0 +1,81 @@
+package com.conference.analytics.serde;
+
+import com.conference.analytics.model.ReviewTotals;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Binary serde for {@link ReviewTotals}. Layout: version, conferenceId, count, totalStars,
+ * averageStars, histogram length, histogram buckets. Version 1 records did not maintain
+ * averageStars, so it is recomputed when they are read.
+ */
+public class ReviewTotalsSerde implements Serde<ReviewTotals>, Serializer<ReviewTotals>, Deserializer<ReviewTotals> {
+
+    @Override
+    public byte[] serialize(String topic, ReviewTotals totals) {
+        if (totals == null) {
+            return null;
+        }
+        long[] histogram = totals.getStarHistogram();
+        int maxSize = 1
+                + BinaryFormat.maxStringSize(totals.getConferenceId())
+                + Long.BYTES
+                + Long.BYTES
+                + Double.BYTES
+                + BinaryFormat.histogramSize(histogram);
+        ByteBuffer buffer = BinaryFormat.scratch(maxSize);
+        buffer.put(BinaryFormat.VERSION_2);
+        BinaryFormat.putString(buffer, totals.getConferenceId());
+        buffer.putLong(totals.getCount());
+        buffer.putLong(totals.getTotalStars());
+        buffer.putDouble(totals.getAverageStars());
+        BinaryFormat.putHistogram(buffer, histogram);
+        return BinaryFormat.toArray(buffer);
+    }
+
+    @Override
+    public ReviewTotals deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        byte version = BinaryFormat.checkVersion(buffer, "ReviewTotals", BinaryFormat.VERSION_2);
+        String conferenceId = BinaryFormat.getString(buffer);
+        long count = buffer.getLong();
+        long totalStars = buffer.getLong();
+        double averageStars = buffer.getDouble();
+        long[] histogram = BinaryFormat.getHistogram(buffer, ReviewTotals.MAX_STARS);
+        if (version == BinaryFormat.VERSION_1) {
+            averageStars = BinaryFormat.average(totalStars, count);
+        }
+        return new ReviewTotals(conferenceId, count, totalStars, averageStars, histogram);
+    }
+
+    @Override
+    public ReviewTotals deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public Serializer<ReviewTotals> serializer() {
+        return this;
+    }
+
+    @Override
+    public Deserializer<ReviewTotals> deserializer() {
+        return this;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
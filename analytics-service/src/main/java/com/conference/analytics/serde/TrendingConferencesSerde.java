@@ -0,0 +1,105 @@
+package com.conference.analytics.serde;
+
+import com.conference.analytics.model.TrendingConference;
+import com.conference.analytics.model.TrendingConferences;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary serde for {@link TrendingConferences}. Layout (version 1): version, windowStart,
+ * windowEnd, then the velocity and the rating ranking, each as a length followed by
+ * (conferenceId, count, averageStars, reviewsPerMinute) entries.
+ */
+public class TrendingConferencesSerde implements Serde<TrendingConferences>, Serializer<TrendingConferences>, Deserializer<TrendingConferences> {
+
+    @Override
+    public byte[] serialize(String topic, TrendingConferences trending) {
+        if (trending == null) {
+            return null;
+        }
+        int maxSize = 1
+                + BinaryFormat.timestampSize(trending.getWindowStart())
+                + BinaryFormat.timestampSize(trending.getWindowEnd())
+                + maxRankingSize(trending.getByVelocity())
+                + maxRankingSize(trending.getByRating());
+        ByteBuffer buffer = BinaryFormat.scratch(maxSize);
+        buffer.put(BinaryFormat.VERSION_1);
+        BinaryFormat.putInstant(buffer, trending.getWindowStart());
+        BinaryFormat.putInstant(buffer, trending.getWindowEnd());
+        putRanking(buffer, trending.getByVelocity());
+        putRanking(buffer, trending.getByRating());
+        return BinaryFormat.toArray(buffer);
+    }
+
+    @Override
+    public TrendingConferences deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        BinaryFormat.checkVersion(buffer, "TrendingConferences");
+        return new TrendingConferences(
+                BinaryFormat.getInstant(buffer),
+                BinaryFormat.getInstant(buffer),
+                getRanking(buffer),
+                getRanking(buffer)
+        );
+    }
+
+    @Override
+    public TrendingConferences deserialize(String topic, Headers headers, byte[] data) {
+        return deserialize(topic, data);
+    }
+
+    @Override
+    public Serializer<TrendingConferences> serializer() {
+        return this;
+    }
+
+    @Override
+    public Deserializer<TrendingConferences> deserializer() {
+        return this;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static int maxRankingSize(List<TrendingConference> ranking) {
+        int size = Integer.BYTES;
+        for (TrendingConference entry : ranking) {
+            size += BinaryFormat.maxStringSize(entry.getConferenceId()) + Long.BYTES + Double.BYTES + Double.BYTES;
+        }
+        return size;
+    }
+
+    private static void putRanking(ByteBuffer buffer, List<TrendingConference> ranking) {
+        buffer.putInt(ranking.size());
+        for (TrendingConference entry : ranking) {
+            BinaryFormat.putString(buffer, entry.getConferenceId());
+            buffer.putLong(entry.getCount());
+            buffer.putDouble(entry.getAverageStars());
+            buffer.putDouble(entry.getReviewsPerMinute());
+        }
+    }
+
+    private static List<TrendingConference> getRanking(ByteBuffer buffer) {
+        int entries = buffer.getInt();
+        List<TrendingConference> ranking = new ArrayList<>(entries);
+        for (int i = 0; i < entries; i++) {
+            ranking.add(new TrendingConference(BinaryFormat.getString(buffer), buffer.getLong(), buffer.getDouble(), buffer.getDouble()));
+        }
+        return ranking;
+    }
+}
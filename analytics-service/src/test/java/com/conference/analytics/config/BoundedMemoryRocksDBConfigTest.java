@@ -0,0 +1,60 @@
+package com.conference.analytics.config;
+
+import org.junit.jupiter.api.Test;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.CompressionType;
+import org.rocksdb.Options;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedMemoryRocksDBConfigTest {
+
+    private final BoundedMemoryRocksDBConfig setter = new BoundedMemoryRocksDBConfig();
+
+    @Test
+    void sizesEachStoreFromTheConfiguration() {
+        Map<String, Object> configs = Map.of(
+                BoundedMemoryRocksDBConfig.WRITE_BUFFER_BYTES, "4194304",
+                BoundedMemoryRocksDBConfig.WRITE_BUFFER_COUNT, 3,
+                BoundedMemoryRocksDBConfig.BLOCK_SIZE, "32768",
+                BoundedMemoryRocksDBConfig.COMPRESSION, "zstd");
+        try (Options options = options()) {
+            setter.setConfig("review-stats-store", options, configs);
+
+            assertThat(options.writeBufferSize()).isEqualTo(4 * 1024 * 1024L);
+            assertThat(options.maxWriteBufferNumber()).isEqualTo(3);
+            assertThat(options.compressionType()).isEqualTo(CompressionType.ZSTD_COMPRESSION);
+            BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+            assertThat(tableConfig.blockSize()).isEqualTo(32 * 1024L);
+            assertThat(tableConfig.cacheIndexAndFilterBlocks()).isTrue();
+        }
+    }
+
+    @Test
+    void fallsBackToDefaults() {
+        try (Options options = options()) {
+            setter.setConfig("review-totals-store", options, Map.of());
+
+            assertThat(options.writeBufferSize()).isEqualTo(8 * 1024 * 1024L);
+            assertThat(options.maxWriteBufferNumber()).isEqualTo(2);
+            assertThat(options.compressionType()).isEqualTo(CompressionType.LZ4_COMPRESSION);
+        }
+    }
+
+    @Test
+    void sharesOneWriteBufferManagerAcrossStores() {
+        try (Options first = options(); Options second = options()) {
+            setter.setConfig("review-stats-store", first, Map.of());
+            new BoundedMemoryRocksDBConfig().setConfig("review-stats-1m-store", second, Map.of());
+
+            assertThat(first.writeBufferManager()).isNotNull().isSameAs(second.writeBufferManager());
+        }
+    }
+
+    // Kafka Streams hands the setter options that already carry a block-based table config.
+    private static Options options() {
+        return new Options().setTableFormatConfig(new BlockBasedTableConfig());
+    }
+}
@@ -0,0 +1,77 @@
+package com.conference.analytics.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingConferencesTest {
+
+    private static final Instant START = Instant.parse("2024-05-01T10:00:00Z");
+    private static final Instant END = Instant.parse("2024-05-01T11:00:00Z");
+
+    @Test
+    void ranksByVelocityThenRatingThenId() {
+        TrendingConferences trending = TrendingConferences.empty(START, END)
+                .update(stats("c", 5), 10, 1)
+                .update(stats("b", 3, 3), 10, 1)
+                .update(stats("a", 5), 10, 1);
+
+        assertThat(trending.getByVelocity()).extracting(TrendingConference::getConferenceId).containsExactly("b", "a", "c");
+        assertThat(trending.getByRating()).extracting(TrendingConference::getConferenceId).containsExactly("a", "c", "b");
+        assertThat(trending.getByVelocity().get(0).getReviewsPerMinute()).isEqualTo(2 / 60.0);
+    }
+
+    @Test
+    void replacesTheEntryOfAConferenceInsteadOfAddingOne() {
+        TrendingConferences trending = TrendingConferences.empty(START, END)
+                .update(stats("a", 5), 10, 1)
+                .update(stats("b", 4, 4), 10, 1)
+                .update(stats("a", 5, 1, 1), 10, 1);
+
+        assertThat(trending.getByVelocity()).extracting(TrendingConference::getConferenceId).containsExactly("a", "b");
+        assertThat(trending.getByRating()).extracting(TrendingConference::getConferenceId).containsExactly("b", "a");
+    }
+
+    @Test
+    void keepsEachRankingWithinCapacity() {
+        TrendingConferences trending = TrendingConferences.empty(START, END);
+        for (String id : new String[]{"a", "b", "c", "d"}) {
+            trending = trending.update(stats(id, 4), 2, 1);
+        }
+
+        assertThat(trending.getByVelocity()).extracting(TrendingConference::getConferenceId).containsExactly("a", "b");
+        assertThat(trending.getByRating()).hasSize(2);
+        assertThat(trending.contains("d")).isFalse();
+    }
+
+    @Test
+    void keepsConferencesWithTooFewReviewsOutOfTheRatingRanking() {
+        TrendingConferences trending = TrendingConferences.empty(START, END)
+                .update(stats("a", 5), 10, 2)
+                .update(stats("b", 3, 4), 10, 2);
+
+        assertThat(trending.getByVelocity()).extracting(TrendingConference::getConferenceId).containsExactly("b", "a");
+        assertThat(trending.getByRating()).extracting(TrendingConference::getConferenceId).containsExactly("b");
+    }
+
+    @Test
+    void limitsBothRankings() {
+        TrendingConferences trending = TrendingConferences.empty(START, END)
+                .update(stats("a", 5), 10, 1)
+                .update(stats("b", 4), 10, 1)
+                .limit(1);
+
+        assertThat(trending.getByVelocity()).hasSize(1);
+        assertThat(trending.getByRating()).extracting(TrendingConference::getConferenceId).containsExactly("a");
+    }
+
+    private static ReviewStats stats(String conferenceId, int... stars) {
+        ReviewStats stats = ReviewStats.EMPTY;
+        for (int star : stars) {
+            stats = stats.add(conferenceId, star);
+        }
+        return stats;
+    }
+}
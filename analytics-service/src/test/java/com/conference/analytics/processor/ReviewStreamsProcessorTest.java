@@ -0,0 +1,30 @@
+package com.conference.analytics.processor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewStreamsProcessorTest {
+
+    @Test
+    void forwardsEveryUpdateByDefault() {
+        assertThat(topology(WindowEmission.ON_UPDATE)).doesNotContain("KTABLE-SUPPRESS");
+    }
+
+    @Test
+    void holdsWindowsBackUntilTheyCloseWhenConfigured() {
+        assertThat(topology(WindowEmission.ON_WINDOW_CLOSE)).contains("KTABLE-SUPPRESS");
+    }
+
+    private static String topology(WindowEmission emission) {
+        StreamsBuilder builder = new StreamsBuilder();
+        new ReviewStreamsProcessor().process(builder, new SimpleMeterRegistry(), emission,
+                Duration.ofSeconds(1), Duration.ofMinutes(10), DataSize.ofMegabytes(1));
+        return builder.build().describe().toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.conference.analytics.processor;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.TrendingConferences;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrendingProcessorsTest {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+    private static final long WINDOW_START = Instant.parse("2024-05-01T10:00:00Z").toEpochMilli();
+    private static final int CAPACITY = 2;
+    private static final long MIN_REVIEWS = 2;
+
+    private final Map<Long, TrendingConferences> merged = new HashMap<>();
+    private final List<Record<Long, ReviewStats>> forwarded = new ArrayList<>();
+    private final TrendingConferencesProcessor merger = new TrendingConferencesProcessor(WINDOW, WINDOW, CAPACITY, MIN_REVIEWS);
+    private final TrendingCandidatesProcessor taskA = candidates();
+    private final TrendingCandidatesProcessor taskB = candidates();
+
+    TrendingProcessorsTest() {
+        ProcessorContext<Void, Void> mergerContext = mock(ProcessorContext.class);
+        when(mergerContext.getStateStore(anyString())).thenAnswer(invocation -> store(merged));
+        merger.init(mergerContext);
+    }
+
+    @Test
+    void mergedRankingsMatchASingleRankingOfAllConferences() {
+        TrendingConferences expected = TrendingConferences.empty(Instant.ofEpochMilli(WINDOW_START), Instant.ofEpochMilli(WINDOW_START).plus(WINDOW));
+        ReviewStats a1 = review(taskA, ReviewStats.EMPTY, "a1", 5);
+        ReviewStats a2 = review(taskA, ReviewStats.EMPTY, "a2", 4);
+        a1 = review(taskA, a1, "a1", 4);
+        ReviewStats a3 = review(taskA, ReviewStats.EMPTY, "a3", 3);
+        a3 = review(taskA, a3, "a3", 4);
+        ReviewStats b1 = ReviewStats.EMPTY;
+        for (int i = 0; i < 3; i++) {
+            b1 = review(taskB, b1, "b1", 2);
+        }
+        for (ReviewStats stats : List.of(a1, a2, a3, b1)) {
+            expected = expected.update(stats, CAPACITY, MIN_REVIEWS);
+        }
+
+        assertThat(merged.get(WINDOW_START)).isEqualTo(expected);
+    }
+
+    @Test
+    void forwardsOnlyCandidatesAndTheOnesThatJustDroppedOut() {
+        ReviewStats a1 = review(taskA, ReviewStats.EMPTY, "a1", 5);
+        review(taskA, ReviewStats.EMPTY, "a2", 4);
+        review(taskA, ReviewStats.EMPTY, "a3", 3);
+        review(taskA, a1, "a1", 5);
+
+        assertThat(forwarded).extracting(record -> record.value().getConferenceId()).containsExactly("a1", "a2", "a1");
+        assertThat(forwarded).extracting(Record::key).containsOnly(WINDOW_START);
+    }
+
+    private ReviewStats review(TrendingCandidatesProcessor task, ReviewStats stats, String conferenceId, int stars) {
+        ReviewStats updated = stats.add(conferenceId, stars);
+        Windowed<String> key = new Windowed<>(conferenceId, new TimeWindow(WINDOW_START, WINDOW_START + WINDOW.toMillis()));
+        task.process(new Record<>(key, updated, WINDOW_START));
+        return updated;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TrendingCandidatesProcessor candidates() {
+        TrendingCandidatesProcessor processor = new TrendingCandidatesProcessor(WINDOW, CAPACITY, MIN_REVIEWS);
+        ProcessorContext<Long, ReviewStats> context = mock(ProcessorContext.class);
+        Map<Long, TrendingConferences> candidates = new HashMap<>();
+        when(context.getStateStore(anyString())).thenAnswer(invocation -> store(candidates));
+        doAnswer(invocation -> {
+            Record<Long, ReviewStats> record = invocation.getArgument(0);
+            forwarded.add(record);
+            merger.process(record);
+            return null;
+        }).when(context).forward(any(Record.class));
+        processor.init(context);
+        return processor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static KeyValueStore<Long, TrendingConferences> store(Map<Long, TrendingConferences> contents) {
+        KeyValueStore<Long, TrendingConferences> store = mock(KeyValueStore.class);
+        when(store.get(any())).thenAnswer(invocation -> contents.get(invocation.<Long>getArgument(0)));
+        doAnswer(invocation -> contents.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(store).put(any(), any());
+        return store;
+    }
+}
@@ -0,0 +1,60 @@
+package com.conference.analytics.processor;
+
+import com.conference.analytics.processor.WindowResolution.Span;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.conference.analytics.processor.WindowResolution.DAY;
+import static com.conference.analytics.processor.WindowResolution.HOUR;
+import static com.conference.analytics.processor.WindowResolution.MINUTE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowResolutionTest {
+
+    @Test
+    void coversTheMiddleWithCoarseWindowsAndTheEdgesWithFineOnes() {
+        assertThat(WindowResolution.cover(at("2024-05-01T10:30:15Z"), at("2024-05-01T12:00:00Z"), at("2024-05-01T12:30:00Z")))
+                .containsExactly(
+                        new Span(MINUTE, at("2024-05-01T10:31:00Z"), at("2024-05-01T11:00:00Z")),
+                        new Span(HOUR, at("2024-05-01T11:00:00Z"), at("2024-05-01T12:00:00Z")));
+    }
+
+    @Test
+    void usesDaysAcrossMidnightAndHoursAfterTheLastWholeDay() {
+        assertThat(WindowResolution.cover(at("2024-05-01T00:00:00Z"), at("2024-05-10T12:00:00Z"), at("2024-05-10T12:00:00Z")))
+                .containsExactly(
+                        new Span(DAY, at("2024-05-01T00:00:00Z"), at("2024-05-10T00:00:00Z")),
+                        new Span(HOUR, at("2024-05-10T00:00:00Z"), at("2024-05-10T12:00:00Z")));
+    }
+
+    @Test
+    void takesTheCurrentMinuteWholeWhenTheRangeReachesNow() {
+        assertThat(WindowResolution.cover(at("2024-05-01T10:00:00Z"), at("2024-05-01T13:00:00Z"), at("2024-05-01T11:20:30Z")))
+                .containsExactly(
+                        new Span(HOUR, at("2024-05-01T10:00:00Z"), at("2024-05-01T11:00:00Z")),
+                        new Span(MINUTE, at("2024-05-01T11:00:00Z"), at("2024-05-01T11:21:00Z")));
+    }
+
+    @Test
+    void leavesOutWhatNoResolutionRetains() {
+        assertThat(WindowResolution.cover(at("2023-01-01T00:00:00Z"), at("2024-05-10T00:00:00Z"), at("2024-05-10T12:00:00Z")))
+                .containsExactly(new Span(DAY, at("2023-05-12T00:00:00Z"), at("2024-05-10T00:00:00Z")));
+    }
+
+    @Test
+    void leavesOutEdgesShorterThanAMinute() {
+        assertThat(WindowResolution.cover(at("2024-05-01T10:00:10Z"), at("2024-05-01T10:00:50Z"), at("2024-05-01T11:00:00Z")))
+                .isEmpty();
+    }
+
+    @Test
+    void alignsWindowStartsToTheEpoch() {
+        assertThat(HOUR.windowStartOf(at("2024-05-01T10:59:59.999Z"))).isEqualTo(at("2024-05-01T10:00:00Z"));
+        assertThat(DAY.windowStartOf(at("2024-05-01T00:00:00Z"))).isEqualTo(at("2024-05-01T00:00:00Z"));
+    }
+
+    private static Instant at(String instant) {
+        return Instant.parse(instant);
+    }
+}
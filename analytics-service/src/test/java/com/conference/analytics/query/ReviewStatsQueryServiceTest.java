@@ -0,0 +1,170 @@
+package com.conference.analytics.query;
+
+import com.conference.analytics.model.ReviewStats;
+import com.conference.analytics.model.ReviewTotals;
+import com.conference.analytics.processor.ReviewStreamsProcessor;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyQueryMetadata;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsMetadata;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.kstream.internals.TimeWindow;
+import org.apache.kafka.streams.state.HostInfo;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ReviewStatsQueryServiceTest {
+
+    private static final HostInfo SELF = new HostInfo("analytics-1", 8083);
+    private static final HostInfo OTHER = new HostInfo("analytics-2", 8083);
+    private static final Instant FROM = Instant.parse("2024-05-01T10:00:00Z");
+    private static final Instant TO = Instant.parse("2024-05-01T10:00:30Z");
+
+    private final KafkaStreams kafkaStreams = mock(KafkaStreams.class);
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ReviewStatsQueryService service;
+
+    ReviewStatsQueryServiceTest() {
+        StreamsBuilderFactoryBean factoryBean = mock(StreamsBuilderFactoryBean.class);
+        when(factoryBean.getKafkaStreams()).thenReturn(kafkaStreams);
+        service = new ReviewStatsQueryService(factoryBean, restTemplate, executor, "analytics-1:8083",
+                Duration.ofMillis(200), objectMapper, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void readsKeysThisInstanceOwnsFromTheLocalStore() {
+        ownedBy(SELF);
+        ReadOnlyKeyValueStore<Object, Object> store = mock(ReadOnlyKeyValueStore.class);
+        ReviewTotals totals = ReviewTotals.empty("c1").add("c1", 4);
+        when(store.get("c1")).thenReturn(totals);
+        when(kafkaStreams.store(any())).thenReturn(store);
+
+        assertThat(service.findTotals("c1")).isEqualTo(totals);
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void routesKeysOwnedElsewhereToTheirInstance() {
+        ownedBy(OTHER);
+        ReviewTotals totals = ReviewTotals.empty("c1").add("c1", 2);
+        when(restTemplate.getForObject(eq("http://analytics-2:8083" + ReviewStatsQueryService.INTERNAL_PATH + "/totals/{conferenceId}"),
+                eq(ReviewTotals.class), eq("c1"))).thenReturn(totals);
+
+        assertThat(service.findTotals("c1")).isEqualTo(totals);
+    }
+
+    @Test
+    void answersServiceUnavailableWhileNoInstanceOwnsTheKey() {
+        when(kafkaStreams.queryMetadataForKey(anyString(), any(), any(Serializer.class)))
+                .thenReturn(KeyQueryMetadata.NOT_AVAILABLE);
+
+        assertThatThrownBy(() -> service.findTotals("c1"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void answersGatewayTimeoutWhenTheOwnerDoesNotAnswerInTime() {
+        ownedBy(OTHER);
+        when(restTemplate.getForObject(anyString(), eq(ReviewTotals.class), eq("c1"))).thenAnswer(invocation -> {
+            Thread.sleep(2_000);
+            return ReviewTotals.empty("c1");
+        });
+
+        assertThatThrownBy(() -> service.findTotals("c1"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.GATEWAY_TIMEOUT));
+    }
+
+    @Test
+    void streamsTheWindowsOfEveryInstance() throws Exception {
+        List<StreamsMetadata> instances = List.of(hosting(SELF), hosting(OTHER));
+        when(kafkaStreams.streamsMetadataForStore(ReviewStreamsProcessor.REVIEW_STATS_STORE)).thenReturn(instances);
+        when(restTemplate.getForObject(eq("http://analytics-2:8083" + ReviewStatsQueryService.INTERNAL_PATH + "/window?from={from}&to={to}"),
+                eq(ReviewStats[].class), eq(FROM.toEpochMilli()), eq(TO.toEpochMilli())))
+                .thenReturn(new ReviewStats[]{ReviewStats.EMPTY.add("remote", 5).withWindow(FROM, FROM.plusSeconds(5))});
+        ReadOnlyWindowStore<Object, Object> store = mock(ReadOnlyWindowStore.class);
+        when(store.fetchAll(FROM, TO)).thenReturn(iterator(KeyValue.pair(
+                new Windowed<>("local", new TimeWindow(FROM.toEpochMilli(), FROM.plusSeconds(5).toEpochMilli())),
+                ReviewStats.EMPTY.add("local", 3))));
+        when(kafkaStreams.store(any())).thenReturn(store);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.streamAll(FROM, TO).writeTo(out);
+
+        JsonNode windows = objectMapper.readTree(out.toByteArray());
+        assertThat(windows).extracting(window -> window.get("conferenceId").asText()).containsExactly("remote", "local");
+        assertThat(windows.get(1).get("windowStart").isNull()).isFalse();
+    }
+
+    private void ownedBy(HostInfo owner) {
+        when(kafkaStreams.queryMetadataForKey(anyString(), any(), any(Serializer.class)))
+                .thenReturn(new KeyQueryMetadata(owner, Set.of(), 0));
+    }
+
+    private static StreamsMetadata hosting(HostInfo host) {
+        StreamsMetadata metadata = mock(StreamsMetadata.class);
+        when(metadata.hostInfo()).thenReturn(host);
+        return metadata;
+    }
+
+    @SafeVarargs
+    private static <K, V> KeyValueIterator<K, V> iterator(KeyValue<K, V>... entries) {
+        Iterator<KeyValue<K, V>> delegate = List.of(entries).iterator();
+        return new KeyValueIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public KeyValue<K, V> next() {
+                return delegate.next();
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public K peekNextKey() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
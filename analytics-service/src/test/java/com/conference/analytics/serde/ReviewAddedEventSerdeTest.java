@@ -0,0 +1,62 @@
+package com.conference.analytics.serde;
+
+import com.conference.conference.common.event.ReviewAddedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReviewAddedEventSerdeTest {
+
+    private final ReviewAddedEventSerde serde = new ReviewAddedEventSerde();
+
+    @Test
+    void roundTripsEveryField() {
+        ReviewAddedEvent event = new ReviewAddedEvent("review-1", "conference-1",
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_789), "Great talks, caf\u00e9 was fine \ud83d\ude00", 4);
+
+        assertThat(serde.deserialize("reviews", serde.serialize("reviews", event))).isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsNullFields() {
+        ReviewAddedEvent event = new ReviewAddedEvent("review-1", "conference-1", null, null, 0);
+
+        assertThat(serde.deserialize("reviews", serde.serialize("reviews", event))).isEqualTo(event);
+    }
+
+    @Test
+    void roundTripsTextLargerThanTheScratchBuffer() {
+        ReviewAddedEvent event = new ReviewAddedEvent("review-1", "conference-1",
+                LocalDateTime.of(2024, 5, 1, 10, 15), "\u00e9".repeat(40_000), 5);
+
+        assertThat(serde.deserialize("reviews", serde.serialize("reviews", event))).isEqualTo(event);
+    }
+
+    @Test
+    void readsLegacyJsonRecords() {
+        byte[] json = """
+                {"reviewId":"review-1","conferenceId":"conference-1","date":"2024-05-01T10:15:30","text":"Great","stars":4}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(serde.deserialize("reviews", json)).isEqualTo(new ReviewAddedEvent("review-1", "conference-1",
+                LocalDateTime.of(2024, 5, 1, 10, 15, 30), "Great", 4));
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        assertThatThrownBy(() -> serde.deserialize("reviews", new byte[]{7}))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version 7");
+    }
+
+    @Test
+    void passesNullThrough() {
+        assertThat(serde.serialize("reviews", null)).isNull();
+        assertThat(serde.deserialize("reviews", null)).isNull();
+    }
+}
@@ -0,0 +1,66 @@
+package com.conference.analytics.serde;
+
+import com.conference.analytics.model.ReviewStats;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReviewStatsSerdeTest {
+
+    private static final Instant START = Instant.parse("2024-05-01T10:00:00Z");
+    private static final Instant END = Instant.parse("2024-05-01T11:00:00Z");
+
+    private final ReviewStatsSerde serde = new ReviewStatsSerde();
+
+    @Test
+    void roundTripsVersion2() {
+        ReviewStats stats = new ReviewStats("conference-1", 3, 11, 11 / 3.0, new long[]{0, 0, 1, 1, 1}, START, END);
+
+        assertThat(serde.deserialize("stats", serde.serialize("stats", stats))).isEqualTo(stats);
+    }
+
+    @Test
+    void roundTripsStoreValuesWithoutWindow() {
+        ReviewStats stats = ReviewStats.EMPTY.add("conference-1", 5).add("conference-1", 2);
+
+        assertThat(serde.deserialize("stats", serde.serialize("stats", stats))).isEqualTo(stats);
+    }
+
+    @Test
+    void readsVersion1WithRecomputedAverageAndEmptyHistogram() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put(BinaryFormat.VERSION_1);
+        BinaryFormat.putString(buffer, "conference-1");
+        buffer.putLong(4);
+        buffer.putLong(14);
+        buffer.putDouble(0);
+        BinaryFormat.putInstant(buffer, START);
+        BinaryFormat.putInstant(buffer, END);
+
+        assertThat(serde.deserialize("stats", BinaryFormat.toArray(buffer)))
+                .isEqualTo(new ReviewStats("conference-1", 4, 14, 3.5, new long[5], START, END));
+    }
+
+    @Test
+    void readsLegacyJsonRecords() {
+        byte[] json = """
+                {"conferenceId":"conference-1","count":2,"totalStars":7,"windowStart":"2024-05-01T10:00:00Z","windowEnd":"2024-05-01T11:00:00Z"}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(serde.deserialize("stats", json))
+                .isEqualTo(new ReviewStats("conference-1", 2, 7, 3.5, new long[5], START, END));
+    }
+
+    @Test
+    void rejectsNewerVersions() {
+        assertThatThrownBy(() -> serde.deserialize("stats", new byte[]{3}))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("version 3");
+    }
+}
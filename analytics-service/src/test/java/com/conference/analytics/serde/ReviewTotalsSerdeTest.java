@@ -0,0 +1,48 @@
+package com.conference.analytics.serde;
+
+import com.conference.analytics.model.ReviewTotals;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReviewTotalsSerdeTest {
+
+    private final ReviewTotalsSerde serde = new ReviewTotalsSerde();
+
+    @Test
+    void roundTripsVersion2() {
+        ReviewTotals totals = ReviewTotals.empty("conference-1").add("conference-1", 4).add("conference-1", 1);
+
+        assertThat(serde.deserialize("totals", serde.serialize("totals", totals))).isEqualTo(totals);
+    }
+
+    @Test
+    void readsVersion1WithRecomputedAverage() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put(BinaryFormat.VERSION_1);
+        BinaryFormat.putString(buffer, "conference-1");
+        buffer.putLong(2);
+        buffer.putLong(9);
+        buffer.putDouble(0);
+        BinaryFormat.putHistogram(buffer, new long[]{0, 0, 0, 1, 1});
+
+        assertThat(serde.deserialize("totals", BinaryFormat.toArray(buffer)))
+                .isEqualTo(new ReviewTotals("conference-1", 2, 9, 4.5, new long[]{0, 0, 0, 1, 1}));
+    }
+
+    @Test
+    void padsShorterHistograms() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        buffer.put(BinaryFormat.VERSION_2);
+        BinaryFormat.putString(buffer, "conference-1");
+        buffer.putLong(1);
+        buffer.putLong(2);
+        buffer.putDouble(2);
+        BinaryFormat.putHistogram(buffer, new long[]{0, 1});
+
+        assertThat(serde.deserialize("totals", BinaryFormat.toArray(buffer)).getStarHistogram())
+                .containsExactly(0, 1, 0, 0, 0);
+    }
+}
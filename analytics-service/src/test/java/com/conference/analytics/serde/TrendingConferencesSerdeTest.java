@@ -0,0 +1,33 @@
+package com.conference.analytics.serde;
+
+import com.conference.analytics.model.TrendingConference;
+import com.conference.analytics.model.TrendingConferences;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingConferencesSerdeTest {
+
+    private final TrendingConferencesSerde serde = new TrendingConferencesSerde();
+
+    @Test
+    void roundTripsBothRankings() {
+        TrendingConferences trending = new TrendingConferences(
+                Instant.parse("2024-05-01T10:00:00Z"), Instant.parse("2024-05-01T11:00:00Z"),
+                List.of(new TrendingConference("conference-1", 12, 4.25, 0.2),
+                        new TrendingConference("conference-2", 3, 5, 0.05)),
+                List.of(new TrendingConference("conference-2", 3, 5, 0.05)));
+
+        assertThat(serde.deserialize("trending", serde.serialize("trending", trending))).isEqualTo(trending);
+    }
+
+    @Test
+    void roundTripsEmptyRankings() {
+        TrendingConferences trending = TrendingConferences.empty(Instant.parse("2024-05-01T10:00:00Z"), null);
+
+        assertThat(serde.deserialize("trending", serde.serialize("trending", trending))).isEqualTo(trending);
+    }
+}
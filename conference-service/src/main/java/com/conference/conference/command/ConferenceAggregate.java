@@ -13,7 +13,7 @@ import org.axonframework.spring.stereotype.Aggregate;
 
 import java.time.LocalDateTime;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "conferenceSnapshotTrigger", cache = "conferenceCache")
 @NoArgsConstructor
 public class ConferenceAggregate {
 
@@ -0,0 +1,19 @@
+package com.conference.conference.command.bulk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One NDJSON line of a bulk import: {@code {"type":"REVIEW","conferenceId":"...","command":{...}}}.
+ * {@code conferenceId} is ignored for CREATE, which assigns a new id.
+ */
+@Data
+@NoArgsConstructor
+public class BulkConferenceCommand {
+    public enum Type {CREATE, UPDATE, REVIEW}
+
+    private Type type;
+    private String conferenceId;
+    private JsonNode command;
+}
@@ -0,0 +1,42 @@
+package com.conference.conference.command.config;
+
+import org.axonframework.common.caching.Cache;
+import org.axonframework.common.caching.NoCache;
+import org.axonframework.common.caching.WeakReferenceCache;
+import org.axonframework.eventsourcing.AggregateLoadTimeSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ConferenceAggregateConfig {
+
+    /**
+     * Reviews are appended to the conference stream but never change the aggregate's state, so
+     * without snapshots every command replays the conference's full review history.
+     */
+    @Bean
+    public SnapshotTriggerDefinition conferenceSnapshotTrigger(Snapshotter snapshotter,
+                                                               @Value("${aggregate.conference.snapshot-trigger:event-count}") String trigger,
+                                                               @Value("${aggregate.conference.snapshot-threshold:100}") int threshold,
+                                                               @Value("${aggregate.conference.snapshot-load-time:50ms}") Duration loadTime) {
+        if ("load-time".equals(trigger)) {
+            return new AggregateLoadTimeSnapshotTriggerDefinition(snapshotter, loadTime.toMillis());
+        }
+        return new EventCountSnapshotTriggerDefinition(snapshotter, threshold);
+    }
+
+    /**
+     * Axon Server routes every command of an aggregate to the same instance, so a local cache
+     * of loaded aggregates stays consistent across replicas.
+     */
+    @Bean
+    public Cache conferenceCache(@Value("${aggregate.conference.cache-enabled:true}") boolean enabled) {
+        return enabled ? new WeakReferenceCache() : NoCache.INSTANCE;
+    }
+}
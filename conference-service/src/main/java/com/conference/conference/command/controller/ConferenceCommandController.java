@@ -4,10 +4,17 @@ import com.conference.conference.command.AddReviewCommand;
 import com.conference.conference.command.CreateConferenceCommand;
 import com.conference.conference.command.DeleteConferenceCommand;
 import com.conference.conference.command.UpdateConferenceCommand;
+import com.conference.conference.command.bulk.BulkConferenceCommand;
+import com.conference.support.bulk.BulkCommand;
+import com.conference.support.bulk.BulkCommandDispatcher;
+import com.conference.support.observability.CommandMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
-import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -16,29 +23,69 @@ import java.util.concurrent.CompletableFuture;
 @AllArgsConstructor
 public class ConferenceCommandController {
 
-    private final CommandGateway commandGateway;
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CommandMetrics commandMetrics;
+    private final BulkCommandDispatcher bulkCommandDispatcher;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/create")
     public CompletableFuture<String> createConference(@RequestBody CreateConferenceCommand command) {
         command.setConferenceId(UUID.randomUUID().toString());
-        return commandGateway.send(command);
+        return commandMetrics.send(command);
     }
 
     @PutMapping("/update/{id}")
     public CompletableFuture<String> updateConference(@PathVariable String id, @RequestBody UpdateConferenceCommand command) {
         command.setConferenceId(id);
-        return commandGateway.send(command);
+        return commandMetrics.send(command);
     }
 
     @DeleteMapping("/delete/{id}")
     public CompletableFuture<String> deleteConference(@PathVariable String id) {
-        return commandGateway.send(new DeleteConferenceCommand(id));
+        return commandMetrics.send(new DeleteConferenceCommand(id));
     }
 
     @PostMapping("/{id}/reviews")
     public CompletableFuture<String> addReview(@PathVariable String id, @RequestBody AddReviewCommand command) {
         command.setConferenceId(id);
         command.setReviewId(UUID.randomUUID().toString());
-        return commandGateway.send(command);
+        return commandMetrics.send(command);
+    }
+
+    @PostMapping(value = "/bulk", consumes = NDJSON, produces = NDJSON)
+    public StreamingResponseBody bulk(InputStream body) {
+        return bulkCommandDispatcher.dispatch(body, BulkConferenceCommand.class, this::toCommand);
+    }
+
+    private BulkCommand toCommand(BulkConferenceCommand line) {
+        if (line.getType() == null || line.getCommand() == null) {
+            throw new IllegalArgumentException("type and command are required");
+        }
+        if (line.getType() != BulkConferenceCommand.Type.CREATE && line.getConferenceId() == null) {
+            throw new IllegalArgumentException("conferenceId is required for " + line.getType());
+        }
+        try {
+            switch (line.getType()) {
+                case CREATE -> {
+                    CreateConferenceCommand command = objectMapper.treeToValue(line.getCommand(), CreateConferenceCommand.class);
+                    command.setConferenceId(UUID.randomUUID().toString());
+                    return new BulkCommand(command.getConferenceId(), command);
+                }
+                case UPDATE -> {
+                    UpdateConferenceCommand command = objectMapper.treeToValue(line.getCommand(), UpdateConferenceCommand.class);
+                    command.setConferenceId(line.getConferenceId());
+                    return new BulkCommand(line.getConferenceId(), command);
+                }
+                default -> {
+                    AddReviewCommand command = objectMapper.treeToValue(line.getCommand(), AddReviewCommand.class);
+                    command.setConferenceId(line.getConferenceId());
+                    command.setReviewId(UUID.randomUUID().toString());
+                    return new BulkCommand(command.getReviewId(), command);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
     }
 }
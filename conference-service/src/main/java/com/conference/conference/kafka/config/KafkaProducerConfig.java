@@ -1,32 +1,46 @@
 package com.conference.conference.kafka.config;
 
-import com.conference.conference.common.event.ReviewAddedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Configuration
+@EnableConfigurationProperties(KafkaProducerProperties.class)
 public class KafkaProducerConfig {
 
+    // Values are serialized when they are written to the outbox.
     @Bean
-    public ProducerFactory<String, ReviewAddedEvent> producerFactory() {
-        Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+    public ProducerFactory<String, byte[]> producerFactory(KafkaProperties kafkaProperties,
+                                                         KafkaProducerProperties producerProperties,
+                                                         MeterRegistry meterRegistry) {
+        Map<String, Object> configProps = new HashMap<>(kafkaProperties.buildProducerProperties());
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        producerProperties.activePreset().applyTo(configProps);
+
+        DefaultKafkaProducerFactory<String, byte[]> factory = new DefaultKafkaProducerFactory<>(configProps);
+        // kafka.producer.* meters, tagged so the presets can be compared side by side.
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry,
+                List.of(Tag.of("preset", producerProperties.getPreset()))));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, ReviewAddedEvent> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    public KafkaTemplate<String, byte[]> kafkaTemplate(ProducerFactory<String, byte[]> producerFactory) {
+        return new KafkaTemplate<>(producerFactory);
     }
 }
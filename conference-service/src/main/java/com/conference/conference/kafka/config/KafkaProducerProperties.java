@@ -0,0 +1,56 @@
+package com.conference.conference.kafka.config;
+
+import lombok.Data;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Named producer tunings, bound from {@code kafka.producer}. The preset selected by
+ * {@code kafka.producer.preset} is applied on top of Spring Boot's {@code spring.kafka.producer}
+ * settings.
+ */
+@Data
+@ConfigurationProperties(prefix = "kafka.producer")
+public class KafkaProducerProperties {
+
+    public static final String LOW_LATENCY = "low-latency";
+    public static final String HIGH_THROUGHPUT = "high-throughput";
+
+    private String preset = HIGH_THROUGHPUT;
+    private Map<String, Preset> presets = new HashMap<>();
+
+    public Preset activePreset() {
+        Preset active = presets.get(preset);
+        if (active == null) {
+            throw new IllegalStateException("Unknown Kafka producer preset '" + preset + "', configured presets are " + presets.keySet());
+        }
+        return active;
+    }
+
+    @Data
+    public static class Preset {
+        private int batchSize = 16384;
+        private Duration linger = Duration.ZERO;
+        private String compressionType = "none";
+        private String acks = "all";
+        private boolean idempotence = true;
+        private int maxInFlight = 5;
+
+        public void applyTo(Map<String, Object> configProps) {
+            // The broker rejects idempotent producers that could reorder or lose acknowledged records.
+            if (idempotence && (!"all".equals(acks) && !"-1".equals(acks) || maxInFlight > 5)) {
+                throw new IllegalStateException("An idempotent producer needs acks=all and at most 5 requests in flight");
+            }
+            configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+            configProps.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+            configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+            configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+            configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+            configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, maxInFlight);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.conference.conference.kafka.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    public static final String REVIEW_EVENTS_TOPIC = "review-events";
+
+    @Value("${kafka.topics.review-events.partitions:6}")
+    private int reviewEventsPartitions;
+
+    @Value("${kafka.topics.review-events.replicas:1}")
+    private int reviewEventsReplicas;
+
+    /**
+     * Review events are keyed by conferenceId, so the partition count bounds how many
+     * stream tasks analytics-service can run in parallel.
+     */
+    @Bean
+    public NewTopic reviewEventsTopic() {
+        return TopicBuilder.name(REVIEW_EVENTS_TOPIC)
+                .partitions(reviewEventsPartitions)
+                .replicas(reviewEventsReplicas)
+                .build();
+    }
+}
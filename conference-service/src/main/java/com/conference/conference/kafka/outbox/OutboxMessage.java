@@ -0,0 +1,73 @@
+package com.conference.conference.kafka.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A Kafka record waiting to be published, written in the same transaction as the projection
+ * change it announces. The id is the global position of the originating event, which orders the
+ * outbox consistently with the event stream.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+public class OutboxMessage implements Persistable<Long> {
+    @Id
+    private Long position;
+    private String topic;
+    private String messageKey;
+    @Lob
+    @Column(nullable = false)
+    @ToString.Exclude
+    private byte[] payload;
+    private Instant createdAt;
+    // Sent as record headers, so analytics can follow the review and measure its end-to-end lag.
+    private String traceId;
+    private Instant eventTime;
+    // The relay publishing this row and until when; a crashed relay's rows are taken over after that.
+    private String claimedBy;
+    private Instant claimedUntil;
+
+    @Transient
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    public OutboxMessage(long position, String topic, String messageKey, byte[] payload, String traceId, Instant eventTime) {
+        this.position = position;
+        this.topic = topic;
+        this.messageKey = messageKey;
+        this.payload = payload;
+        this.createdAt = Instant.now();
+        this.traceId = traceId;
+        this.eventTime = eventTime;
+    }
+
+    @Override
+    public Long getId() {
+        return position;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+}
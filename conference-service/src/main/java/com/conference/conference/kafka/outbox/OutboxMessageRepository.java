@@ -0,0 +1,33 @@
+package com.conference.conference.kafka.outbox;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // The oldest rows, locked so that two relays never claim them at once.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from OutboxMessage m order by m.position")
+    List<OutboxMessage> findNextBatch(Pageable pageable);
+
+    boolean existsByClaimedUntilAfterAndClaimedByNot(Instant now, String relayId);
+
+    @Modifying
+    @Query("update OutboxMessage m set m.claimedBy = :relayId, m.claimedUntil = :claimedUntil where m.position in :positions")
+    int claim(@Param("positions") Collection<Long> positions, @Param("relayId") String relayId,
+              @Param("claimedUntil") Instant claimedUntil);
+
+    // Rows whose claim another relay has taken over are left to that relay.
+    @Modifying
+    @Query("delete from OutboxMessage m where m.position in :positions and m.claimedBy = :relayId")
+    int deleteClaimed(@Param("positions") Collection<Long> positions, @Param("relayId") String relayId);
+}
@@ -0,0 +1,174 @@
+package com.conference.conference.kafka.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes the outbox to Kafka in batches, oldest first. A batch is claimed for this relay in one
+ * short transaction, published outside of any transaction, and deleted in a second one once the
+ * broker has acknowledged every record of it, so delivery is at-least-once; a failed batch is
+ * retried whole on the next poll. Records keep their conferenceId key, and the idempotent producer
+ * keeps them in order within a partition.
+ * <p>
+ * Only one relay publishes at a time: while another relay holds a live claim, this one backs off,
+ * so records stay in order across instances. A claim lasts {@code outbox.relay.lease}, longer than
+ * a publish may take, after which the rows of a relay that died mid-batch are claimed and
+ * published again.
+ * <p>
+ * Each record carries the review's trace id and the time its event was applied as headers.
+ * {@code outbox.send} times each record from send to acknowledgement, and {@code outbox.lag} the
+ * whole way from the event to the broker.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    public static final String TRACE_ID_HEADER = "traceId";
+    public static final String EVENT_TIME_HEADER = "eventTime";
+    public static final String SEND_TIMER = "outbox.send";
+    public static final String LAG_TIMER = "outbox.lag";
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer sendTimer;
+    private final Timer lagTimer;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration sendTimeout;
+    private final Duration lease;
+    private final String relayId = UUID.randomUUID().toString();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    public OutboxRelay(OutboxMessageRepository outboxMessageRepository,
+                       KafkaTemplate<String, byte[]> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${outbox.relay.poll-interval:50ms}") Duration pollInterval,
+                       @Value("${outbox.relay.send-timeout:30s}") Duration sendTimeout,
+                       @Value("${outbox.relay.lease:60s}") Duration lease) {
+        if (lease.compareTo(sendTimeout) <= 0) {
+            throw new IllegalArgumentException("outbox.relay.lease (" + lease + ") must be longer than outbox.relay.send-timeout (" + sendTimeout + ")");
+        }
+        this.outboxMessageRepository = outboxMessageRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // No gap locks, so projection inserts never wait for a batch that is being claimed.
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.sendTimer = meterRegistry.timer(SEND_TIMER);
+        this.lagTimer = meterRegistry.timer(LAG_TIMER);
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.sendTimeout = sendTimeout;
+        this.lease = lease;
+    }
+
+    @PostConstruct
+    public void start() {
+        executor.scheduleWithFixedDelay(this::drain, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void drain() {
+        try {
+            int relayed;
+            do {
+                relayed = relayBatch();
+            } while (relayed == batchSize && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            log.warn("Outbox relay failed, retrying in {}", pollInterval, e);
+        }
+    }
+
+    int relayBatch() {
+        List<OutboxMessage> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            sends.add(send(message));
+        }
+        kafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while publishing the outbox", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Outbox batch of " + batch.size() + " records was not acknowledged", e);
+        }
+        List<Long> positions = batch.stream().map(OutboxMessage::getPosition).toList();
+        transactionTemplate.executeWithoutResult(status -> outboxMessageRepository.deleteClaimed(positions, relayId));
+        return batch.size();
+    }
+
+    /**
+     * Claims the oldest rows for this relay and returns them, or nothing while another relay holds
+     * a live claim. Rows this relay claimed before, for a batch that failed, are claimed again.
+     */
+    private List<OutboxMessage> claimNextBatch() {
+        Instant now = Instant.now();
+        // Checked without locks first, so a standby relay does not load and lock a batch every poll.
+        if (outboxMessageRepository.existsByClaimedUntilAfterAndClaimedByNot(now, relayId)) {
+            return List.of();
+        }
+        List<OutboxMessage> batch = outboxMessageRepository.findNextBatch(PageRequest.ofSize(batchSize));
+        boolean claimedByOther = batch.stream().anyMatch(message -> message.getClaimedUntil() != null
+                && message.getClaimedUntil().isAfter(now) && !relayId.equals(message.getClaimedBy()));
+        if (batch.isEmpty() || claimedByOther) {
+            return List.of();
+        }
+        outboxMessageRepository.claim(batch.stream().map(OutboxMessage::getPosition).toList(), relayId, now.plus(lease));
+        return batch;
+    }
+
+    private CompletableFuture<?> send(OutboxMessage message) {
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(message.getTopic(), message.getMessageKey(), message.getPayload());
+        if (message.getTraceId() != null) {
+            record.headers().add(TRACE_ID_HEADER, message.getTraceId().getBytes(StandardCharsets.UTF_8));
+        }
+        Instant eventTime = message.getEventTime();
+        if (eventTime != null) {
+            record.headers().add(EVENT_TIME_HEADER, Long.toString(eventTime.toEpochMilli()).getBytes(StandardCharsets.UTF_8));
+        }
+        Timer.Sample sample = Timer.start();
+        return kafkaTemplate.send(record).whenComplete((result, error) -> {
+            if (error == null) {
+                sample.stop(sendTimer);
+                if (eventTime != null) {
+                    lagTimer.record(Duration.between(eventTime, Instant.now()));
+                }
+            }
+        });
+    }
+}
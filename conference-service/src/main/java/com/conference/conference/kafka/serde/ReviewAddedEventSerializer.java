@@ -0,0 +1,115 @@
+package com.conference.conference.kafka.serde;
+
+import com.conference.conference.common.event.ReviewAddedEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Writes {@link ReviewAddedEvent} in the compact binary format read by analytics-service.
+ * Layout (version 1): version, reviewId, conferenceId, date, text, stars. Strings are an int
+ * UTF-8 byte length (-1 for null) followed by the bytes; the date is a presence byte followed by
+ * epoch seconds and nanos in UTC. The record is encoded in one pass into a per-thread scratch
+ * buffer and copied into the exactly-sized array Kafka keeps.
+ * <p>
+ * The services share no module (this event class is itself a copy of analytics-service's), so the
+ * writer mirrors analytics-service's {@code BinaryFormat}; a format change has to be made in both.
+ */
+public class ReviewAddedEventSerializer implements Serializer<ReviewAddedEvent> {
+
+    public static final byte VERSION_1 = 1;
+
+    private static final int SCRATCH_SIZE = 4 * 1024;
+    private static final int MAX_SCRATCH_SIZE = 64 * 1024;
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(() -> ByteBuffer.allocate(SCRATCH_SIZE));
+
+    @Override
+    public byte[] serialize(String topic, ReviewAddedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        int maxSize = 1
+                + maxStringSize(event.getReviewId())
+                + maxStringSize(event.getConferenceId())
+                + (event.getDate() == null ? 1 : 1 + Long.BYTES + Integer.BYTES)
+                + maxStringSize(event.getText())
+                + Integer.BYTES;
+        ByteBuffer buffer = scratch(maxSize);
+        buffer.put(VERSION_1);
+        putString(buffer, event.getReviewId());
+        putString(buffer, event.getConferenceId());
+        putLocalDateTime(buffer, event.getDate());
+        putString(buffer, event.getText());
+        buffer.putInt(event.getStars());
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    // Long review texts get a buffer of their own instead of growing the scratch for good.
+    private static ByteBuffer scratch(int maxSize) {
+        ByteBuffer buffer = SCRATCH.get();
+        if (maxSize > buffer.capacity()) {
+            if (maxSize > MAX_SCRATCH_SIZE) {
+                return ByteBuffer.allocate(maxSize);
+            }
+            buffer = ByteBuffer.allocate(MAX_SCRATCH_SIZE);
+            SCRATCH.set(buffer);
+        }
+        return buffer.clear();
+    }
+
+    // A UTF-16 char takes at most 3 bytes of UTF-8; a surrogate pair takes 4 for its 2 chars.
+    private static int maxStringSize(String value) {
+        return Integer.BYTES + (value == null ? 0 : value.length() * MAX_UTF8_BYTES_PER_CHAR);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        int lengthPosition = buffer.position();
+        buffer.position(lengthPosition + Integer.BYTES);
+        putUtf8(buffer, value);
+        buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+    }
+
+    private static void putLocalDateTime(ByteBuffer buffer, LocalDateTime value) {
+        if (value == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+        buffer.put((byte) 1);
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+
+    private static void putUtf8(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    buffer.put((byte) '?');
+                }
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.conference.conference.query.cache;
+
+import com.conference.conference.common.event.ConferenceUpdatedEvent;
+import com.conference.conference.common.event.ConferenceDeletedEvent;
+import com.conference.conference.common.event.ReviewAddedEvent;
+import com.conference.support.cache.DeferredCacheEviction;
+import lombok.AllArgsConstructor;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.TrackingToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs on every instance, from that instance's own start-up position, so each replica evicts its
+ * local copy of every conference that changes, whichever instance owns the projection segment that
+ * applied it. The eviction waits until the projection has committed the event; see
+ * {@link DeferredCacheEviction}.
+ */
+@Component
+@AllArgsConstructor
+@ProcessingGroup(ConferenceCacheInvalidator.PROCESSING_GROUP)
+public class ConferenceCacheInvalidator {
+
+    public static final String PROCESSING_GROUP = "conference-cache";
+
+    private final DeferredCacheEviction conferenceCacheEviction;
+
+    @EventHandler
+    public void on(ConferenceUpdatedEvent event, TrackingToken token) {
+        conferenceCacheEviction.evictAfterCommit(event.getConferenceId(), token);
+    }
+
+    @EventHandler
+    public void on(ConferenceDeletedEvent event, TrackingToken token) {
+        conferenceCacheEviction.evictAfterCommit(event.getConferenceId(), token);
+    }
+
+    // The cached conference carries its rating and latest reviews.
+    @EventHandler
+    public void on(ReviewAddedEvent event, TrackingToken token) {
+        conferenceCacheEviction.evictAfterCommit(event.getConferenceId(), token);
+    }
+}
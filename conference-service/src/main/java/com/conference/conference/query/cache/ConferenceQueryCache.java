@@ -0,0 +1,32 @@
+package com.conference.conference.query.cache;
+
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ConferenceQueryCache {
+
+    public static final String CONFERENCES = "conferences";
+
+    private final Cache conferences;
+
+    public ConferenceQueryCache(CacheManager cacheManager) {
+        this.conferences = cacheManager.getCache(CONFERENCES);
+    }
+
+    /**
+     * Evicts a conference from this instance's cache once the current unit of work has committed, so
+     * a read in between cannot cache the row as it was before the change. Other instances evict
+     * their copy through {@link ConferenceCacheInvalidator}.
+     */
+    public void evict(String conferenceId) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            conferences.evict(conferenceId);
+            return;
+        }
+        CurrentUnitOfWork.get().root().afterCommit(committed -> conferences.evict(conferenceId));
+    }
+}
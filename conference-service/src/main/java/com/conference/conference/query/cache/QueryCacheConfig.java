@@ -0,0 +1,45 @@
+package com.conference.conference.query.cache;
+
+import com.conference.conference.query.handler.ConferenceEventHandler;
+import com.conference.support.cache.DeferredCacheEviction;
+import com.conference.support.cache.ProjectionPositions;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Duration;
+
+/**
+ * Each instance caches conferences locally. Every instance tails the event stream with an in-memory
+ * token through {@link ConferenceCacheInvalidator}, and evicts a changed conference once the projection
+ * has committed the change.
+ */
+@org.springframework.context.annotation.Configuration
+@EnableCaching
+public class QueryCacheConfig {
+
+    @Bean
+    public DeferredCacheEviction conferenceCacheEviction(CacheManager cacheManager,
+                                                         ProjectionPositions projectionPositions,
+                                                         @Value("${query-cache.eviction.max-wait:10s}") Duration maxWait) {
+        return new DeferredCacheEviction(ConferenceEventHandler.PROCESSING_GROUP,
+                cacheManager.getCache(ConferenceQueryCache.CONFERENCES), projectionPositions, maxWait);
+    }
+
+    @Autowired
+    public void configure(EventProcessingConfigurer configurer) {
+        configurer.registerTrackingEventProcessor(ConferenceCacheInvalidator.PROCESSING_GROUP, Configuration::eventStore,
+                        configuration -> TrackingEventProcessorConfiguration.forSingleThreadedProcessing()
+                                .andInitialTrackingToken(StreamableMessageSource::createHeadToken))
+                .registerTokenStore(ConferenceCacheInvalidator.PROCESSING_GROUP, configuration -> new InMemoryTokenStore())
+                .registerTransactionManager(ConferenceCacheInvalidator.PROCESSING_GROUP, configuration -> NoTransactionManager.INSTANCE);
+    }
+}
@@ -0,0 +1,33 @@
+package com.conference.conference.query.config;
+
+import com.conference.conference.query.entity.ReviewRating;
+import com.conference.conference.query.repository.ConferenceRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the {@link ReviewRating} counters of conferences whose reviews were stored before the
+ * counters existed; the projection only counts the reviews it handles. Runs while the application
+ * context starts, before the projection's processor does, and finds nothing to do once every
+ * conference has been counted.
+ */
+@Slf4j
+@Component
+public class ReviewRatingBackfill {
+
+    private final ConferenceRepository conferenceRepository;
+
+    public ReviewRatingBackfill(ConferenceRepository conferenceRepository) {
+        this.conferenceRepository = conferenceRepository;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        if (!conferenceRepository.existsWithUncountedReviews()) {
+            return;
+        }
+        int conferences = conferenceRepository.backfillReviewRatings();
+        log.info("Backfilled the review counters of {} conferences from their stored reviews", conferences);
+    }
+}
@@ -1,37 +1,133 @@
 package com.conference.conference.query.controller;
 
-import com.conference.conference.query.entity.Conference;
-import com.conference.conference.query.entity.Review;
+import com.conference.conference.query.cache.ConferenceQueryCache;
+import com.conference.conference.query.dto.ConferenceCursor;
+import com.conference.conference.query.dto.ConferencePage;
+import com.conference.conference.query.dto.ConferenceSearchCriteria;
+import com.conference.conference.query.dto.ConferenceSort;
+import com.conference.conference.query.dto.ConferenceSummary;
+import com.conference.conference.query.dto.ReviewPage;
+import com.conference.conference.query.dto.ReviewSummary;
 import com.conference.conference.query.repository.ConferenceRepository;
 import com.conference.conference.query.repository.ReviewRepository;
+import com.conference.support.stream.NdjsonExporter;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/conferences/queries")
 @AllArgsConstructor
 public class ConferenceQueryController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int LATEST_REVIEWS = 20;
+    private static final Comparator<ReviewSummary> LATEST_FIRST = Comparator.comparing(ReviewSummary::getDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ReviewSummary::getReviewId)
+            .reversed();
+
     private final ConferenceRepository conferenceRepository;
     private final ReviewRepository reviewRepository;
+    private final NdjsonExporter ndjsonExporter;
+
+    @GetMapping
+    public ConferencePage searchConferences(@RequestParam(required = false) String type,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                            @RequestParam(required = false) String keynoteId,
+                                            @RequestParam(required = false) Double minScore,
+                                            @RequestParam(defaultValue = "DATE") ConferenceSort sort,
+                                            @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "false") boolean includeReviews) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        ConferenceCursor after = cursor == null ? null : ConferenceCursor.decode(cursor);
+        if (after != null && after.getSort() != sort) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "cursor was issued for sort " + after.getSort());
+        }
+
+        ConferenceSearchCriteria criteria = new ConferenceSearchCriteria(type, from, to, keynoteId, minScore, sort, direction, after);
+        // One extra row tells whether another page exists without a COUNT query.
+        List<ConferenceSummary> rows = conferenceRepository.search(criteria, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<ConferenceSummary> items = hasMore ? rows.subList(0, size) : rows;
+
+        if (includeReviews && !items.isEmpty()) {
+            // Only the latest reviews of each conference, like getConferenceById; the rest are paged by /{id}/reviews.
+            Map<String, List<ReviewSummary>> reviews = reviewRepository.findLatestByConferenceIds(
+                            items.stream().map(ConferenceSummary::getConferenceId).toList(), LATEST_REVIEWS)
+                    .stream()
+                    .map(review -> new ReviewSummary(review.getReviewId(), review.getConference().getConferenceId(),
+                            review.getDate(), review.getText(), review.getStars()))
+                    .sorted(LATEST_FIRST)
+                    .collect(Collectors.groupingBy(ReviewSummary::getConferenceId));
+            items.forEach(item -> item.setReviews(reviews.getOrDefault(item.getConferenceId(), List.of())));
+        }
+
+        String nextCursor = hasMore ? ConferenceCursor.of(sort, items.get(items.size() - 1)).encode() : null;
+        return new ConferencePage(items, nextCursor);
+    }
 
     @GetMapping("/all")
-    public List<Conference> getAllConferences() {
-        return conferenceRepository.findAll();
+    public List<ConferenceSummary> getAllConferences() {
+        return conferenceRepository.findAllSummaries();
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON)
+    public StreamingResponseBody exportConferences() {
+        return ndjsonExporter.export(conferenceRepository::streamAllSummaries);
     }
 
     @GetMapping("/{id}")
-    public Conference getConferenceById(@PathVariable String id) {
-        return conferenceRepository.findById(id).orElse(null);
+    @Cacheable(cacheNames = ConferenceQueryCache.CONFERENCES, key = "#id", unless = "#result == null")
+    public ConferenceSummary getConferenceById(@PathVariable String id) {
+        return conferenceRepository.findSummaryById(id)
+                .map(conference -> {
+                    conference.setReviews(reviewPage(id, null, null, 0, LATEST_REVIEWS).getItems());
+                    return conference;
+                })
+                .orElse(null);
     }
 
     @GetMapping("/{id}/reviews")
-    public List<Review> getConferenceReviews(@PathVariable String id) {
-        return conferenceRepository.findById(id).map(Conference::getReviews).orElse(null);
+    public ReviewPage getConferenceReviews(@PathVariable String id,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page must be positive and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        return reviewPage(id, from, to, page, size);
+    }
+
+    @GetMapping(value = "/{id}/reviews/export", produces = NdjsonExporter.NDJSON)
+    public StreamingResponseBody exportConferenceReviews(@PathVariable String id) {
+        return ndjsonExporter.export(() -> reviewRepository.streamSummariesByConferenceId(id));
+    }
+
+    private ReviewPage reviewPage(String id, LocalDateTime from, LocalDateTime to, int page, int size) {
+        Slice<ReviewSummary> reviews = reviewRepository.findSummariesByConferenceId(id, from, to, PageRequest.of(page, size));
+        return new ReviewPage(reviews.getContent(), page, size, reviews.hasNext());
     }
 }
@@ -0,0 +1,57 @@
+package com.conference.conference.query.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page: its sort value and id. Encoded as an opaque URL-safe token
+ * so clients only ever pass back what they received.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConferenceCursor {
+    private static final String SEPARATOR = "|";
+
+    private ConferenceSort sort;
+    private String value;
+    private String conferenceId;
+
+    public static ConferenceCursor of(ConferenceSort sort, ConferenceSummary last) {
+        String value = switch (sort) {
+            case DATE -> last.getDate() == null ? "" : last.getDate().toString();
+            case SCORE -> Double.toString(last.getScore());
+        };
+        return new ConferenceCursor(sort, value, last.getConferenceId());
+    }
+
+    public static ConferenceCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\" + SEPARATOR, 3);
+            return new ConferenceCursor(ConferenceSort.valueOf(parts[0]), parts[1], parts[2]);
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + value + SEPARATOR + conferenceId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDateTime dateValue() {
+        return value.isEmpty() ? null : LocalDateTime.parse(value);
+    }
+
+    public double scoreValue() {
+        return Double.parseDouble(value);
+    }
+}
@@ -0,0 +1,15 @@
+package com.conference.conference.query.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConferencePage {
+    private List<ConferenceSummary> items;
+    private String nextCursor;
+}
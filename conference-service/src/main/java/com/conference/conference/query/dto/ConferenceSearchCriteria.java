@@ -0,0 +1,22 @@
+package com.conference.conference.query.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ConferenceSearchCriteria {
+    private String type;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String keynoteId;
+    private Double minScore;
+    private ConferenceSort sort;
+    private Sort.Direction direction;
+    private ConferenceCursor after;
+}
@@ -0,0 +1,16 @@
+package com.conference.conference.query.dto;
+
+public enum ConferenceSort {
+    DATE("date"),
+    SCORE("score");
+
+    private final String attribute;
+
+    ConferenceSort(String attribute) {
+        this.attribute = attribute;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+}
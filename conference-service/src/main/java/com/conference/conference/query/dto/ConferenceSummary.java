@@ -0,0 +1,48 @@
+package com.conference.conference.query.dto;
+
+import com.conference.conference.query.entity.ReviewRating;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ConferenceSummary {
+    private String conferenceId;
+    private String title;
+    private String type;
+    private LocalDateTime date;
+    private int duration;
+    private int registeredCount;
+    private double score;
+    private String keynoteId;
+    private long reviewCount;
+    private double averageStars;
+    private long[] starHistogram;
+    private LocalDateTime lastReviewAt;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ReviewSummary> reviews;
+
+    public ConferenceSummary(String conferenceId, String title, String type, LocalDateTime date,
+                             int duration, int registeredCount, double score, String keynoteId, ReviewRating rating) {
+        this.conferenceId = conferenceId;
+        this.title = title;
+        this.type = type;
+        this.date = date;
+        this.duration = duration;
+        this.registeredCount = registeredCount;
+        this.score = score;
+        this.keynoteId = keynoteId;
+        if (rating == null) {
+            rating = new ReviewRating();
+        }
+        this.reviewCount = rating.getReviewCount();
+        this.averageStars = rating.getAverageStars();
+        this.starHistogram = rating.getStarHistogram();
+        this.lastReviewAt = rating.getLastReviewAt();
+    }
+}
@@ -0,0 +1,17 @@
+package com.conference.conference.query.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewPage {
+    private List<ReviewSummary> items;
+    private int page;
+    private int size;
+    private boolean hasNext;
+}
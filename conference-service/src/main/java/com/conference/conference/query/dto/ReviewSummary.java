@@ -0,0 +1,18 @@
+package com.conference.conference.query.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewSummary {
+    private String reviewId;
+    private String conferenceId;
+    private LocalDateTime date;
+    private String text;
+    private int stars;
+}
@@ -3,12 +3,21 @@ package com.conference.conference.query.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_conference_date", columnList = "date, conference_id"),
+        @Index(name = "idx_conference_score", columnList = "score, conference_id"),
+        @Index(name = "idx_conference_type_date", columnList = "type, date, conference_id"),
+        @Index(name = "idx_conference_type_score", columnList = "type, score, conference_id"),
+        @Index(name = "idx_conference_keynote_date", columnList = "keynote_id, date, conference_id")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -23,6 +32,11 @@ public class Conference {
     private double score;
     private String keynoteId;
 
+    @Embedded
+    private ReviewRating rating = new ReviewRating();
+
     @OneToMany(mappedBy = "conference", cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Review> reviews;
 }
@@ -0,0 +1,63 @@
+package com.conference.conference.query.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Running review counters of a conference, maintained by the projection as reviews arrive so
+ * queries never have to aggregate the review rows.
+ */
+@Embeddable
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReviewRating {
+    public static final int MAX_STARS = 5;
+
+    @Column(name = "review_count")
+    private long reviewCount;
+    @Column(name = "star_sum")
+    private long starSum;
+    @Column(name = "stars_1")
+    private long oneStar;
+    @Column(name = "stars_2")
+    private long twoStars;
+    @Column(name = "stars_3")
+    private long threeStars;
+    @Column(name = "stars_4")
+    private long fourStars;
+    @Column(name = "stars_5")
+    private long fiveStars;
+    @Column(name = "last_review_at")
+    private LocalDateTime lastReviewAt;
+
+    public void add(int stars, LocalDateTime date) {
+        reviewCount++;
+        starSum += stars;
+        switch (stars) {
+            case 1 -> oneStar++;
+            case 2 -> twoStars++;
+            case 3 -> threeStars++;
+            case 4 -> fourStars++;
+            case 5 -> fiveStars++;
+            default -> { }
+        }
+        if (date != null && (lastReviewAt == null || date.isAfter(lastReviewAt))) {
+            lastReviewAt = date;
+        }
+    }
+
+    public double getAverageStars() {
+        return reviewCount == 0 ? 0 : (double) starSum / reviewCount;
+    }
+
+    /** Review counts per star, {@code [0]} holding the 1-star reviews. */
+    public long[] getStarHistogram() {
+        return new long[]{oneStar, twoStars, threeStars, fourStars, fiveStars};
+    }
+}
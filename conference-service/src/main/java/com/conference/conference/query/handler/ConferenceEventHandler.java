@@ -4,23 +4,53 @@ import com.conference.conference.common.event.ConferenceCreatedEvent;
 import com.conference.conference.common.event.ConferenceDeletedEvent;
 import com.conference.conference.common.event.ConferenceUpdatedEvent;
 import com.conference.conference.common.event.ReviewAddedEvent;
+import com.conference.conference.kafka.config.KafkaTopicConfig;
+import com.conference.conference.kafka.outbox.OutboxMessage;
+import com.conference.conference.kafka.outbox.OutboxMessageRepository;
+import com.conference.conference.kafka.serde.ReviewAddedEventSerializer;
+import com.conference.support.observability.TraceContext;
+import com.conference.conference.query.cache.ConferenceQueryCache;
 import com.conference.conference.query.entity.Conference;
 import com.conference.conference.query.entity.Review;
+import com.conference.conference.query.entity.ReviewRating;
 import com.conference.conference.query.repository.ConferenceRepository;
 import com.conference.conference.query.repository.ReviewRepository;
 import lombok.AllArgsConstructor;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.ReplayStatus;
+import org.axonframework.eventhandling.Timestamp;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.annotation.MetaDataValue;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.springframework.beans.BeanUtils;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
 @Service
 @AllArgsConstructor
+@ProcessingGroup(ConferenceEventHandler.PROCESSING_GROUP)
 public class ConferenceEventHandler {
 
+    // The package name Axon gave this processor before it was registered explicitly; renaming it
+    // would leave it without a token and replay the whole event store into the live tables.
+    public static final String PROCESSING_GROUP = "com.conference.conference.query.handler";
+
+    private static final ReviewAddedEventSerializer REVIEW_SERIALIZER = new ReviewAddedEventSerializer();
+
+    private static final String BATCH_PRELOADED = ConferenceEventHandler.class.getName() + ".batchPreloaded";
+    private static final String EXISTING_REVIEWS = ConferenceEventHandler.class.getName() + ".existingReviews";
+
     private final ConferenceRepository conferenceRepository;
     private final ReviewRepository reviewRepository;
-    private final KafkaTemplate<String, ReviewAddedEvent> kafkaTemplate;
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ConferenceQueryCache conferenceQueryCache;
 
     @EventHandler
     public void on(ConferenceCreatedEvent event) {
@@ -31,25 +61,96 @@ public class ConferenceEventHandler {
 
     @EventHandler
     public void on(ConferenceUpdatedEvent event) {
-        Conference conference = conferenceRepository.findById(event.getConferenceId()).orElse(new Conference());
+        Conference conference = findConference(event.getConferenceId());
+        if (conference == null) {
+            conference = new Conference();
+        }
         BeanUtils.copyProperties(event, conference);
         conferenceRepository.save(conference);
+        conferenceQueryCache.evict(event.getConferenceId());
     }
 
     @EventHandler
     public void on(ConferenceDeletedEvent event) {
         conferenceRepository.deleteById(event.getConferenceId());
+        conferenceQueryCache.evict(event.getConferenceId());
     }
 
     @EventHandler
-    public void on(ReviewAddedEvent event) {
-        Conference conference = conferenceRepository.findById(event.getConferenceId()).orElse(null);
+    public void on(ReviewAddedEvent event, ReplayStatus replayStatus, TrackingToken token,
+                   @Timestamp Instant appliedAt, @MetaDataValue(TraceContext.TRACE_ID) String traceId) {
+        // A review is handled again after a token reset; inserting, counting and publishing it
+        // twice would fail on its key, skew the rating and double-count it in analytics.
+        if (isKnownReview(event.getReviewId())) {
+            return;
+        }
+        Conference conference = findConference(event.getConferenceId());
         if (conference != null) {
             Review review = new Review();
             BeanUtils.copyProperties(event, review);
             review.setConference(conference);
             reviewRepository.save(review);
-            kafkaTemplate.send("review-events", event);
+            // Flushed with the review insert in the same batch transaction.
+            if (conference.getRating() == null) {
+                conference.setRating(new ReviewRating());
+            }
+            conference.getRating().add(event.getStars(), event.getDate());
+            conferenceQueryCache.evict(event.getConferenceId());
+            // Analytics already received this review the first time round.
+            if (!replayStatus.isReplay()) {
+                outboxMessageRepository.save(new OutboxMessage(token.position().orElseThrow(),
+                        KafkaTopicConfig.REVIEW_EVENTS_TOPIC, event.getConferenceId(),
+                        REVIEW_SERIALIZER.serialize(KafkaTopicConfig.REVIEW_EVENTS_TOPIC, event), traceId, appliedAt));
+            }
+        }
+    }
+
+    private Conference findConference(String conferenceId) {
+        preloadBatch();
+        return conferenceRepository.findById(conferenceId).orElse(null);
+    }
+
+    private boolean isKnownReview(String reviewId) {
+        Set<String> existingReviews = preloadBatch();
+        return existingReviews != null ? existingReviews.contains(reviewId) : reviewRepository.existsById(reviewId);
+    }
+
+    /**
+     * Loads every conference referenced by the current event batch with a single query, so the
+     * per-event lookups that follow are served from the persistence context of the batch
+     * transaction instead of one SELECT per event. Likewise checks in one query which of the
+     * batch's reviews are already stored, and returns their ids, or {@code null} outside a batch.
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> preloadBatch() {
+        if (!CurrentUnitOfWork.isStarted()) {
+            return null;
+        }
+        UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get().root();
+        if (!(unitOfWork instanceof BatchingUnitOfWork<?> batch)) {
+            return null;
+        }
+        if (batch.resources().containsKey(BATCH_PRELOADED)) {
+            return (Set<String>) batch.resources().get(EXISTING_REVIEWS);
+        }
+        batch.resources().put(BATCH_PRELOADED, Boolean.TRUE);
+
+        Set<String> conferenceIds = new HashSet<>();
+        Set<String> reviewIds = new HashSet<>();
+        for (Message<?> message : batch.getMessages()) {
+            Object payload = message.getPayload();
+            if (payload instanceof ReviewAddedEvent reviewAdded) {
+                conferenceIds.add(reviewAdded.getConferenceId());
+                reviewIds.add(reviewAdded.getReviewId());
+            } else if (payload instanceof ConferenceUpdatedEvent conferenceUpdated) {
+                conferenceIds.add(conferenceUpdated.getConferenceId());
+            }
+        }
+        if (conferenceIds.size() > 1) {
+            conferenceRepository.findAllById(conferenceIds);
         }
+        Set<String> existingReviews = reviewIds.isEmpty() ? Set.of() : reviewRepository.findExistingIds(reviewIds);
+        batch.resources().put(EXISTING_REVIEWS, existingReviews);
+        return existingReviews;
     }
 }
@@ -1,7 +1,53 @@
 package com.conference.conference.query.repository;
 
+import com.conference.conference.query.dto.ConferenceSummary;
 import com.conference.conference.query.entity.Conference;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface ConferenceRepository extends JpaRepository<Conference, String> {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface ConferenceRepository extends JpaRepository<Conference, String>, ConferenceSearchRepository {
+
+    // Rows per round trip of the server-side cursor (useCursorFetch) behind the Stream queries.
+    int STREAM_FETCH_SIZE = 1000;
+
+    @Query("select new com.conference.conference.query.dto.ConferenceSummary(c.conferenceId, c.title, c.type, c.date, "
+            + "c.duration, c.registeredCount, c.score, c.keynoteId, c.rating) from Conference c")
+    List<ConferenceSummary> findAllSummaries();
+
+    @Query("select new com.conference.conference.query.dto.ConferenceSummary(c.conferenceId, c.title, c.type, c.date, "
+            + "c.duration, c.registeredCount, c.score, c.keynoteId, c.rating) from Conference c where c.conferenceId = :conferenceId")
+    Optional<ConferenceSummary> findSummaryById(@Param("conferenceId") String conferenceId);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select new com.conference.conference.query.dto.ConferenceSummary(c.conferenceId, c.title, c.type, c.date, "
+            + "c.duration, c.registeredCount, c.score, c.keynoteId, c.rating) from Conference c")
+    Stream<ConferenceSummary> streamAllSummaries();
+
+    @Query("select case when count(c) > 0 then true else false end from Conference c where c.rating.reviewCount = 0 "
+            + "and exists (select r.reviewId from Review r where r.conference = c)")
+    boolean existsWithUncountedReviews();
+
+    // Counts the stored reviews of every conference whose counters are still zero although it has
+    // reviews, which the projection never leaves behind.
+    @Modifying
+    @Transactional
+    @Query(value = "update conference c join (select conference_id, count(*) as review_count, sum(stars) as star_sum, "
+            + "sum(stars = 1) as stars_1, sum(stars = 2) as stars_2, sum(stars = 3) as stars_3, sum(stars = 4) as stars_4, "
+            + "sum(stars = 5) as stars_5, max(date) as last_review_at from review group by conference_id) r "
+            + "on r.conference_id = c.conference_id "
+            + "set c.review_count = r.review_count, c.star_sum = r.star_sum, c.stars_1 = r.stars_1, c.stars_2 = r.stars_2, "
+            + "c.stars_3 = r.stars_3, c.stars_4 = r.stars_4, c.stars_5 = r.stars_5, c.last_review_at = r.last_review_at "
+            + "where c.review_count = 0", nativeQuery = true)
+    int backfillReviewRatings();
 }
@@ -0,0 +1,11 @@
+package com.conference.conference.query.repository;
+
+import com.conference.conference.query.dto.ConferenceSearchCriteria;
+import com.conference.conference.query.dto.ConferenceSummary;
+
+import java.util.List;
+
+public interface ConferenceSearchRepository {
+
+    List<ConferenceSummary> search(ConferenceSearchCriteria criteria, int limit);
+}
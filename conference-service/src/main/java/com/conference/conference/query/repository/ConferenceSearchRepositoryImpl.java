@@ -0,0 +1,106 @@
+package com.conference.conference.query.repository;
+
+import com.conference.conference.query.dto.ConferenceCursor;
+import com.conference.conference.query.dto.ConferenceSearchCriteria;
+import com.conference.conference.query.dto.ConferenceSort;
+import com.conference.conference.query.dto.ConferenceSummary;
+import com.conference.conference.query.entity.Conference;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyset-paginated conference search. Rows are ordered by the sort attribute and then by id, and
+ * a page starts strictly after the cursor's (value, id) pair, so every page is an index range
+ * scan no matter how deep the client has paged.
+ */
+public class ConferenceSearchRepositoryImpl implements ConferenceSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ConferenceSummary> search(ConferenceSearchCriteria criteria, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ConferenceSummary> query = cb.createQuery(ConferenceSummary.class);
+        Root<Conference> conference = query.from(Conference.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getType() != null) {
+            predicates.add(cb.equal(conference.get("type"), criteria.getType()));
+        }
+        if (criteria.getFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(conference.get("date"), criteria.getFrom()));
+        }
+        if (criteria.getTo() != null) {
+            predicates.add(cb.lessThan(conference.get("date"), criteria.getTo()));
+        }
+        if (criteria.getKeynoteId() != null) {
+            predicates.add(cb.equal(conference.get("keynoteId"), criteria.getKeynoteId()));
+        }
+        if (criteria.getMinScore() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(conference.get("score"), criteria.getMinScore()));
+        }
+
+        boolean ascending = criteria.getDirection() == Sort.Direction.ASC;
+        if (criteria.getAfter() != null) {
+            predicates.add(after(cb, conference, criteria.getAfter(), ascending));
+        }
+
+        Path<Comparable<Object>> sortAttribute = conference.get(criteria.getSort().getAttribute());
+        Path<String> id = conference.get("conferenceId");
+        query.select(cb.construct(ConferenceSummary.class,
+                        conference.get("conferenceId"),
+                        conference.get("title"),
+                        conference.get("type"),
+                        conference.get("date"),
+                        conference.get("duration"),
+                        conference.get("registeredCount"),
+                        conference.get("score"),
+                        conference.get("keynoteId"),
+                        conference.get("rating")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending
+                        ? List.of(cb.asc(sortAttribute), cb.asc(id))
+                        : List.of(cb.desc(sortAttribute), cb.desc(id)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private Predicate after(CriteriaBuilder cb, Root<Conference> conference, ConferenceCursor cursor, boolean ascending) {
+        Path<String> id = conference.get("conferenceId");
+        Predicate idAfter = ascending ? cb.greaterThan(id, cursor.getConferenceId()) : cb.lessThan(id, cursor.getConferenceId());
+
+        if (cursor.getSort() == ConferenceSort.SCORE) {
+            Path<Double> score = conference.get("score");
+            double value = cursor.scoreValue();
+            return cb.or(
+                    ascending ? cb.greaterThan(score, value) : cb.lessThan(score, value),
+                    cb.and(cb.equal(score, value), idAfter));
+        }
+
+        // MySQL sorts NULL dates first in ascending order and last in descending order.
+        Path<LocalDateTime> date = conference.get("date");
+        LocalDateTime value = cursor.dateValue();
+        if (value == null) {
+            return ascending
+                    ? cb.or(cb.and(cb.isNull(date), idAfter), cb.isNotNull(date))
+                    : cb.and(cb.isNull(date), idAfter);
+        }
+        Predicate dateAfter = cb.or(
+                ascending ? cb.greaterThan(date, value) : cb.lessThan(date, value),
+                cb.and(cb.equal(date, value), idAfter));
+        return ascending ? dateAfter : cb.or(dateAfter, cb.isNull(date));
+    }
+}
@@ -1,7 +1,47 @@
 package com.conference.conference.query.repository;
 
+import com.conference.conference.query.dto.ReviewSummary;
 import com.conference.conference.query.entity.Review;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface ReviewRepository extends JpaRepository<Review, String> {
+
+    @Query("select r.reviewId from Review r where r.reviewId in :reviewIds")
+    Set<String> findExistingIds(@Param("reviewIds") Collection<String> reviewIds);
+
+    // A lateral derived table reads at most `limit` rows of idx_review_conference_date per conference,
+    // where ROW_NUMBER() would first number every review of every conference.
+    @Query(value = "select l.review_id, l.conference_id, l.date, l.text, l.stars from conference c, lateral ("
+            + "select r.review_id, r.conference_id, r.date, r.text, r.stars from review r where r.conference_id = c.conference_id "
+            + "order by r.date desc, r.review_id desc limit :limit) as l "
+            + "where c.conference_id in (:conferenceIds)", nativeQuery = true)
+    List<Review> findLatestByConferenceIds(@Param("conferenceIds") Collection<String> conferenceIds, @Param("limit") int limit);
+
+    // Served by idx_review_conference_date; a Slice fetches one extra row instead of running a COUNT.
+    @Query("select new com.conference.conference.query.dto.ReviewSummary(r.reviewId, r.conference.conferenceId, r.date, r.text, r.stars) "
+            + "from Review r where r.conference.conferenceId = :conferenceId and (:from is null or r.date >= :from) and (:to is null or r.date < :to) "
+            + "order by r.date desc, r.reviewId desc")
+    Slice<ReviewSummary> findSummariesByConferenceId(@Param("conferenceId") String conferenceId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to,
+                                                     Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + ConferenceRepository.STREAM_FETCH_SIZE))
+    @Query("select new com.conference.conference.query.dto.ReviewSummary(r.reviewId, r.conference.conferenceId, r.date, r.text, r.stars) "
+            + "from Review r where r.conference.conferenceId = :conferenceId order by r.date desc, r.reviewId desc")
+    Stream<ReviewSummary> streamSummariesByConferenceId(@Param("conferenceId") String conferenceId);
 }
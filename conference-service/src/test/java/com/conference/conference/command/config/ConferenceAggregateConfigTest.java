@@ -0,0 +1,55 @@
+package com.conference.conference.command.config;
+
+import com.conference.conference.command.ConferenceAggregate;
+import org.axonframework.common.caching.NoCache;
+import org.axonframework.common.caching.WeakReferenceCache;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.AggregateLoadTimeSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.SnapshotTrigger;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ConferenceAggregateConfigTest {
+
+    private final ConferenceAggregateConfig config = new ConferenceAggregateConfig();
+    private final Snapshotter snapshotter = mock(Snapshotter.class);
+
+    @Test
+    void snapshotsAConferenceOnceItsStreamReachesTheThreshold() {
+        SnapshotTrigger trigger = config.conferenceSnapshotTrigger(snapshotter, "event-count", 3, Duration.ofMillis(50))
+                .prepareTrigger(ConferenceAggregate.class);
+
+        trigger.eventHandled(review(0));
+        trigger.eventHandled(review(1));
+        verify(snapshotter, never()).scheduleSnapshot(ConferenceAggregate.class, "conference-1");
+
+        trigger.eventHandled(review(2));
+        trigger.eventHandled(review(3));
+        verify(snapshotter).scheduleSnapshot(ConferenceAggregate.class, "conference-1");
+    }
+
+    @Test
+    void triggersOnLoadTimeWhenConfigured() {
+        SnapshotTriggerDefinition trigger = config.conferenceSnapshotTrigger(snapshotter, "load-time", 3, Duration.ofMillis(50));
+
+        assertThat(trigger).isInstanceOf(AggregateLoadTimeSnapshotTriggerDefinition.class);
+    }
+
+    @Test
+    void cachesAggregatesUnlessDisabled() {
+        assertThat(config.conferenceCache(true)).isInstanceOf(WeakReferenceCache.class);
+        assertThat(config.conferenceCache(false)).isSameAs(NoCache.INSTANCE);
+    }
+
+    private static GenericDomainEventMessage<String> review(long sequenceNumber) {
+        return new GenericDomainEventMessage<>("ConferenceAggregate", "conference-1", sequenceNumber, "review");
+    }
+}
@@ -0,0 +1,84 @@
+package com.conference.conference.kafka.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KafkaProducerPropertiesTest {
+
+    @Test
+    void bindsThePresetsOfTheApplicationConfiguration() throws IOException {
+        KafkaProducerProperties properties = bind("application.yml");
+
+        Map<String, Object> highThroughput = new HashMap<>();
+        properties.activePreset().applyTo(highThroughput);
+        assertThat(highThroughput)
+                .containsEntry(ProducerConfig.BATCH_SIZE_CONFIG, 262144)
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 20)
+                .containsEntry(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4")
+                .containsEntry(ProducerConfig.ACKS_CONFIG, "all")
+                .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true)
+                .containsEntry(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+
+        Map<String, Object> lowLatency = new HashMap<>();
+        properties.getPresets().get(KafkaProducerProperties.LOW_LATENCY).applyTo(lowLatency);
+        assertThat(lowLatency)
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, 0)
+                .containsEntry(ProducerConfig.ACKS_CONFIG, "1")
+                .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false)
+                .containsEntry(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+    }
+
+    @Test
+    void rejectsAnUnknownPreset() {
+        KafkaProducerProperties properties = new KafkaProducerProperties();
+        properties.setPreset("fastest");
+
+        assertThatThrownBy(properties::activePreset)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("fastest");
+    }
+
+    @Test
+    void rejectsIdempotencePresetsTheBrokerWouldRefuse() {
+        KafkaProducerProperties.Preset preset = new KafkaProducerProperties.Preset();
+        preset.setAcks("1");
+
+        assertThatThrownBy(() -> preset.applyTo(new HashMap<>())).isInstanceOf(IllegalStateException.class);
+
+        preset.setAcks("-1");
+        preset.setMaxInFlight(6);
+        assertThatThrownBy(() -> preset.applyTo(new HashMap<>())).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void appliesDefaultsToAPresetWithoutSettings() {
+        Map<String, Object> configProps = new HashMap<>();
+        new KafkaProducerProperties.Preset().applyTo(configProps);
+
+        assertThat(configProps)
+                .containsEntry(ProducerConfig.LINGER_MS_CONFIG, (int) Duration.ZERO.toMillis())
+                .containsEntry(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+    }
+
+    private static KafkaProducerProperties bind(String resource) throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load(resource, new ClassPathResource(resource))
+                .forEach(environment.getPropertySources()::addLast);
+        return new Binder(ConfigurationPropertySources.get(environment))
+                .bind("kafka.producer", KafkaProducerProperties.class)
+                .get();
+    }
+}
@@ -0,0 +1,106 @@
+package com.conference.conference.kafka.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxMessageRepository repository = mock(OutboxMessageRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, byte[]> kafkaTemplate = mock(KafkaTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final OutboxRelay relay = relay(Duration.ofSeconds(30), Duration.ofSeconds(60));
+
+    OutboxRelayTest() {
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+    }
+
+    @Test
+    void publishesAClaimedBatchBetweenTwoTransactions() {
+        when(repository.findNextBatch(any())).thenReturn(List.of(message(1, null, null), message(2, null, null)));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(relay.relayBatch()).isEqualTo(2);
+
+        InOrder order = inOrder(repository, transactionManager, kafkaTemplate);
+        order.verify(repository).claim(eq(List.of(1L, 2L)), anyString(), any(Instant.class));
+        order.verify(transactionManager).commit(any());
+        order.verify(kafkaTemplate).flush();
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(repository).deleteClaimed(eq(List.of(1L, 2L)), anyString());
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void backsOffWhileAnotherRelayHoldsAClaim() {
+        when(repository.existsByClaimedUntilAfterAndClaimedByNot(any(), anyString())).thenReturn(true);
+
+        assertThat(relay.relayBatch()).isZero();
+        verify(repository, never()).findNextBatch(any());
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    @Test
+    void backsOffWhenTheLockedBatchTurnsOutToBeClaimed() {
+        when(repository.findNextBatch(any())).thenReturn(List.of(message(1, "other-relay", Instant.now().plusSeconds(30))));
+
+        assertThat(relay.relayBatch()).isZero();
+        verify(repository, never()).claim(any(), anyString(), any());
+    }
+
+    @Test
+    void takesOverRowsWhoseClaimExpired() {
+        when(repository.findNextBatch(any())).thenReturn(List.of(message(1, "other-relay", Instant.now().minusSeconds(1))));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(relay.relayBatch()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsABatchThatWasNotAcknowledged() {
+        when(repository.findNextBatch(any())).thenReturn(List.of(message(1, null, null)));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThatThrownBy(relay::relayBatch).isInstanceOf(IllegalStateException.class);
+        verify(repository, never()).deleteClaimed(any(), anyString());
+    }
+
+    @Test
+    void rejectsALeaseThatCouldExpireMidPublish() {
+        assertThatThrownBy(() -> relay(Duration.ofSeconds(30), Duration.ofSeconds(30)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private OutboxRelay relay(Duration sendTimeout, Duration lease) {
+        return new OutboxRelay(repository, kafkaTemplate, transactionManager, new SimpleMeterRegistry(),
+                500, Duration.ofMillis(50), sendTimeout, lease);
+    }
+
+    private static OutboxMessage message(long position, String claimedBy, Instant claimedUntil) {
+        OutboxMessage message = new OutboxMessage(position, "review-events", "c1", new byte[]{1}, null, null);
+        message.setClaimedBy(claimedBy);
+        message.setClaimedUntil(claimedUntil);
+        return message;
+    }
+}
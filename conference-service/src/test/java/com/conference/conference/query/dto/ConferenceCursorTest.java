@@ -0,0 +1,68 @@
+package com.conference.conference.query.dto;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConferenceCursorTest {
+
+    @Test
+    void roundTripsADateCursor() {
+        ConferenceSummary last = summary("conference|1", LocalDateTime.of(2024, 5, 1, 9, 30), 0);
+
+        ConferenceCursor cursor = ConferenceCursor.decode(ConferenceCursor.of(ConferenceSort.DATE, last).encode());
+
+        assertThat(cursor).isEqualTo(new ConferenceCursor(ConferenceSort.DATE, "2024-05-01T09:30", "conference|1"));
+        assertThat(cursor.dateValue()).isEqualTo(LocalDateTime.of(2024, 5, 1, 9, 30));
+    }
+
+    @Test
+    void roundTripsAnUndatedConference() {
+        ConferenceCursor cursor = ConferenceCursor.decode(ConferenceCursor.of(ConferenceSort.DATE, summary("conference-1", null, 0)).encode());
+
+        assertThat(cursor.dateValue()).isNull();
+        assertThat(cursor.getConferenceId()).isEqualTo("conference-1");
+    }
+
+    @Test
+    void roundTripsAScoreCursor() {
+        ConferenceCursor cursor = ConferenceCursor.decode(ConferenceCursor.of(ConferenceSort.SCORE, summary("conference-1", null, 87.5)).encode());
+
+        assertThat(cursor.getSort()).isEqualTo(ConferenceSort.SCORE);
+        assertThat(cursor.scoreValue()).isEqualTo(87.5);
+    }
+
+    @Test
+    void encodesUrlSafeTokensWithoutPadding() {
+        String token = new ConferenceCursor(ConferenceSort.SCORE, "1.0", "??>>").encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsMalformedTokensAsBadRequests() {
+        String unknownSort = Base64.getUrlEncoder().encodeToString("RATING|1|c".getBytes(StandardCharsets.UTF_8));
+        String missingParts = Base64.getUrlEncoder().encodeToString("DATE".getBytes(StandardCharsets.UTF_8));
+
+        for (String token : new String[]{"not base64!", unknownSort, missingParts}) {
+            assertThatThrownBy(() -> ConferenceCursor.decode(token))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+    }
+
+    private static ConferenceSummary summary(String conferenceId, LocalDateTime date, double score) {
+        ConferenceSummary summary = new ConferenceSummary();
+        summary.setConferenceId(conferenceId);
+        summary.setDate(date);
+        summary.setScore(score);
+        return summary;
+    }
+}
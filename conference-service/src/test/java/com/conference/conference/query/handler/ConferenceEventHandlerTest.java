@@ -0,0 +1,106 @@
+package com.conference.conference.query.handler;
+
+import com.conference.conference.common.event.ReviewAddedEvent;
+import com.conference.conference.kafka.outbox.OutboxMessage;
+import com.conference.conference.kafka.outbox.OutboxMessageRepository;
+import com.conference.conference.query.cache.ConferenceQueryCache;
+import com.conference.conference.query.entity.Conference;
+import com.conference.conference.query.entity.Review;
+import com.conference.conference.query.repository.ConferenceRepository;
+import com.conference.conference.query.repository.ReviewRepository;
+import org.axonframework.eventhandling.GenericEventMessage;
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.axonframework.eventhandling.ReplayStatus;
+import org.axonframework.messaging.ResultMessage;
+import org.axonframework.messaging.unitofwork.BatchingUnitOfWork;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConferenceEventHandlerTest {
+
+    private final ConferenceRepository conferenceRepository = mock(ConferenceRepository.class);
+    private final ReviewRepository reviewRepository = mock(ReviewRepository.class);
+    private final OutboxMessageRepository outboxMessageRepository = mock(OutboxMessageRepository.class);
+    private final ConferenceEventHandler handler = new ConferenceEventHandler(conferenceRepository, reviewRepository,
+            outboxMessageRepository, mock(ConferenceQueryCache.class));
+    private final Map<String, Conference> conferences = Map.of("c1", conference("c1"), "c2", conference("c2"));
+
+    ConferenceEventHandlerTest() {
+        when(conferenceRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(conferences.get(invocation.<String>getArgument(0))));
+    }
+
+    @Test
+    void loadsTheConferencesAndKnownReviewsOfABatchInOneQueryEach() {
+        when(reviewRepository.findExistingIds(any())).thenReturn(Set.of("r3"));
+
+        handleBatch(ReplayStatus.REGULAR, review("r1", "c1", 5), review("r2", "c2", 3), review("r3", "c1", 1));
+
+        verify(conferenceRepository).findAllById(Set.of("c1", "c2"));
+        verify(reviewRepository).findExistingIds(Set.of("r1", "r2", "r3"));
+        verify(reviewRepository, never()).existsById(anyString());
+        verify(reviewRepository, times(2)).save(any(Review.class));
+        verify(outboxMessageRepository, times(2)).save(any(OutboxMessage.class));
+        assertThat(conferences.get("c1").getRating().getReviewCount()).isEqualTo(1);
+        assertThat(conferences.get("c2").getRating().getReviewCount()).isEqualTo(1);
+    }
+
+    @Test
+    void storesReplayedReviewsWithoutPublishingThemAgain() {
+        when(reviewRepository.findExistingIds(any())).thenReturn(Set.of());
+
+        handleBatch(ReplayStatus.REPLAY, review("r1", "c1", 4));
+
+        verify(reviewRepository).save(any(Review.class));
+        verify(outboxMessageRepository, never()).save(any());
+    }
+
+    @Test
+    void checksReviewsOneByOneOutsideABatch() {
+        when(reviewRepository.existsById("r1")).thenReturn(true);
+
+        handler.on(review("r1", "c1", 4), ReplayStatus.REGULAR, new GlobalSequenceTrackingToken(1), Instant.now(), null);
+
+        verify(reviewRepository, never()).save(any());
+        verify(outboxMessageRepository, never()).save(any());
+    }
+
+    private void handleBatch(ReplayStatus replayStatus, ReviewAddedEvent... events) {
+        BatchingUnitOfWork<?> batch = new BatchingUnitOfWork<>(
+                Arrays.stream(events).map(GenericEventMessage::asEventMessage).toList());
+        ResultMessage<?> result = batch.executeWithResult(() -> {
+            ReviewAddedEvent event = (ReviewAddedEvent) CurrentUnitOfWork.get().getMessage().getPayload();
+            handler.on(event, replayStatus, new GlobalSequenceTrackingToken(1), Instant.now(), "trace-1");
+            return null;
+        });
+        if (result.isExceptional()) {
+            throw new AssertionError(result.exceptionResult());
+        }
+    }
+
+    private static ReviewAddedEvent review(String reviewId, String conferenceId, int stars) {
+        return new ReviewAddedEvent(reviewId, conferenceId, LocalDateTime.of(2024, 5, 1, 10, 0), "text", stars);
+    }
+
+    private static Conference conference(String conferenceId) {
+        Conference conference = new Conference();
+        conference.setConferenceId(conferenceId);
+        return conference;
+    }
+}
@@ -2,11 +2,11 @@ import React, { useState } from 'react';
 import { Review } from '../../types/conference';
 
 interface ReviewFormProps {
-    onSave: (review: Omit<Review, 'reviewId' | 'conference' | 'date'>) => void;
+    onSave: (review: Omit<Review, 'reviewId' | 'conferenceId' | 'date'>) => void;
 }
 
 const ReviewForm: React.FC<ReviewFormProps> = ({ onSave }) => {
-    const [review, setReview] = useState<Omit<Review, 'reviewId' | 'conference' | 'date'>>({
+    const [review, setReview] = useState<Omit<Review, 'reviewId' | 'conferenceId' | 'date'>>({
         text: '',
         stars: 5,
     });
@@ -1,16 +1,25 @@
 import React, { useState, useEffect } from 'react';
-import { getReviewStats } from '../../services/analyticsService';
+import { subscribeReviewStats } from '../../services/analyticsService';
 import { ReviewStats } from '../../types/analytics';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, Legend, ResponsiveContainer } from 'recharts';
 
+const LIVE_HISTORY_MS = 30000;
+
 const AnalyticsPage: React.FC = () => {
     const [stats, setStats] = useState<ReviewStats[]>([]);
 
     useEffect(() => {
-        const interval = setInterval(() => {
-            getReviewStats().then(setStats);
-        }, 5000);
-        return () => clearInterval(interval);
+        const merge = (updates: ReviewStats[]) => setStats(current => {
+            const since = Date.now() - LIVE_HISTORY_MS;
+            const byWindow = new Map(current.map(s => [s.conferenceId + '@' + s.windowStart, s]));
+            updates.forEach(s => byWindow.set(s.conferenceId + '@' + s.windowStart, s));
+            return Array.from(byWindow.values())
+                .filter(s => new Date(s.windowEnd).getTime() > since)
+                .sort((a, b) => a.windowStart.localeCompare(b.windowStart));
+        });
+
+        // Delivers the current windows on every (re)connect, then each update.
+        return subscribeReviewStats(merge);
     }, []);
 
     return (
@@ -19,7 +19,7 @@ const ConferenceDetailsPage: React.FC = () => {
         getConferenceById(conferenceId).then(setConference);
     };
 
-    const handleAddReview = (review: Omit<Review, 'reviewId' | 'conference' | 'date'>) => {
+    const handleAddReview = (review: Omit<Review, 'reviewId' | 'conferenceId' | 'date'>) => {
         if (id) {
             addReview(id, review).then(() => {
                 loadConference(id);
@@ -1,6 +1,121 @@
 import api from './api';
-import { ReviewStats } from '../types/analytics';
+import keycloak from '../auth/keycloak';
+import { ReviewStats, ReviewTotals, TrendingConferences } from '../types/analytics';
 
 export const getReviewStats = (): Promise<ReviewStats[]> => {
     return api.get('/analytics/reviews/window').then(res => res.data);
 };
+
+export const getConferenceReviewStats = (conferenceId: string): Promise<ReviewStats[]> => {
+    return api.get(`/analytics/reviews/window/${conferenceId}`).then(res => res.data);
+};
+
+export const getConferenceReviewSeries = (conferenceId: string, from: string, to?: string): Promise<ReviewStats[]> => {
+    return api.get(`/analytics/reviews/series/${conferenceId}`, { params: { from, to } }).then(res => res.data);
+};
+
+export const getConferenceReviewTotals = (conferenceId: string): Promise<ReviewTotals> => {
+    return api.get(`/analytics/reviews/totals/${conferenceId}`).then(res => res.data);
+};
+
+export const getTrendingConferences = (limit?: number): Promise<TrendingConferences> => {
+    return api.get('/analytics/trending', { params: { limit } }).then(res => res.data);
+};
+
+const RECONNECT_MIN_MS = 1000;
+const RECONNECT_MAX_MS = 30000;
+
+class StreamError extends Error {
+    readonly retryable: boolean;
+
+    constructor(status: number, retryable: boolean) {
+        super(`Live review stats failed with status ${status}`);
+        this.retryable = retryable;
+    }
+}
+
+// A refresh token that has expired as well means the user has to log in again.
+const refreshToken = (minValidity: number): Promise<void> => keycloak.updateToken(minValidity).then(
+    () => undefined,
+    () => {
+        throw new StreamError(401, false);
+    });
+
+const sleep = (ms: number, signal: AbortSignal): Promise<void> => new Promise(resolve => {
+    const timer = setTimeout(resolve, ms);
+    signal.addEventListener('abort', () => {
+        clearTimeout(timer);
+        resolve();
+    }, { once: true });
+});
+
+// EventSource cannot send the bearer token, so the event stream is read through fetch. The stream
+// is reopened with backoff whenever it ends or fails, and every connection first delivers the
+// current windows, so updates sent while disconnected are not lost. A 401 refreshes the token
+// before reconnecting; other 4xx responses, or a token that cannot be refreshed, end the subscription.
+export const subscribeReviewStats = (onStats: (stats: ReviewStats[]) => void, conferenceId?: string): (() => void) => {
+    const controller = new AbortController();
+    const query = conferenceId ? `?conferenceId=${encodeURIComponent(conferenceId)}` : '';
+    let delay = RECONNECT_MIN_MS;
+
+    const connect = async (): Promise<void> => {
+        const headers: Record<string, string> = { Accept: 'text/event-stream' };
+        if (keycloak.authenticated) {
+            await refreshToken(30);
+            headers.Authorization = `Bearer ${keycloak.token}`;
+        }
+
+        const res = await fetch(`${api.defaults.baseURL}/analytics/reviews/live${query}`, { headers, signal: controller.signal });
+        if (res.status === 401 && keycloak.authenticated) {
+            await refreshToken(-1);
+            throw new StreamError(res.status, true);
+        }
+        if (!res.ok || !res.body) {
+            throw new StreamError(res.status, res.status >= 500 || res.status === 429);
+        }
+
+        // Read only once the stream is open, so nothing falls between the snapshot and the first update.
+        onStats(await (conferenceId ? getConferenceReviewStats(conferenceId) : getReviewStats()));
+        delay = RECONNECT_MIN_MS;
+
+        const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+            const { value, done } = await reader.read();
+            if (done) {
+                return;
+            }
+            buffer += value;
+            let end;
+            while ((end = buffer.indexOf('\n\n')) >= 0) {
+                const data = buffer.slice(0, end).split('\n')
+                    .filter(line => line.startsWith('data:'))
+                    .map(line => line.slice(5))
+                    .join('\n');
+                buffer = buffer.slice(end + 2);
+                if (data) {
+                    onStats([JSON.parse(data)]);
+                }
+            }
+        }
+    };
+
+    const run = async (): Promise<void> => {
+        while (!controller.signal.aborted) {
+            try {
+                await connect();
+            } catch (error) {
+                // Network errors and failed snapshot requests are retried like a 5xx.
+                if (controller.signal.aborted || (error instanceof StreamError && !error.retryable)) {
+                    return;
+                }
+            }
+            // Jitter spreads reconnects out after a gateway or analytics-service restart.
+            await sleep(delay * (0.5 + Math.random() / 2), controller.signal);
+            delay = Math.min(delay * 2, RECONNECT_MAX_MS);
+        }
+    };
+
+    void run();
+    return () => controller.abort();
+};
@@ -1,14 +1,22 @@
 import api from './api';
-import { Conference, Review } from '../types/conference';
+import { Conference, ConferencePage, ConferenceSearchParams, Review, ReviewPage } from '../types/conference';
 
 export const getConferences = (): Promise<Conference[]> => {
     return api.get('/conferences/queries/all').then(res => res.data);
 };
 
+export const searchConferences = (params: ConferenceSearchParams): Promise<ConferencePage> => {
+    return api.get('/conferences/queries', { params }).then(res => res.data);
+};
+
 export const getConferenceById = (id: string): Promise<Conference> => {
     return api.get(`/conferences/queries/${id}`).then(res => res.data);
 };
 
+export const getConferenceReviews = (id: string, page = 0, size = 20): Promise<ReviewPage> => {
+    return api.get(`/conferences/queries/${id}/reviews`, { params: { page, size } }).then(res => res.data);
+};
+
 export const createConference = (conference: Omit<Conference, 'conferenceId' | 'reviews'>): Promise<string> => {
     return api.post('/conferences/commands/create', conference).then(res => res.data);
 };
@@ -21,6 +29,6 @@ export const deleteConference = (id: string): Promise<string> => {
     return api.delete(`/conferences/commands/delete/${id}`).then(res => res.data);
 };
 
-export const addReview = (conferenceId: string, review: Omit<Review, 'reviewId' | 'conference'>): Promise<string> => {
+export const addReview = (conferenceId: string, review: Omit<Review, 'reviewId' | 'conferenceId'>): Promise<string> => {
     return api.post(`/conferences/commands/${conferenceId}/reviews`, review).then(res => res.data);
 };
@@ -1,7 +1,31 @@
 export interface ReviewStats {
+    conferenceId: string;
     count: number;
     totalStars: number;
     averageStars: number;
+    starHistogram: number[];
     windowStart: string;
     windowEnd: string;
 }
+
+export interface ReviewTotals {
+    conferenceId: string;
+    count: number;
+    totalStars: number;
+    averageStars: number;
+    starHistogram: number[];
+}
+
+export interface TrendingConference {
+    conferenceId: string;
+    count: number;
+    averageStars: number;
+    reviewsPerMinute: number;
+}
+
+export interface TrendingConferences {
+    windowStart: string;
+    windowEnd: string;
+    byVelocity: TrendingConference[];
+    byRating: TrendingConference[];
+}
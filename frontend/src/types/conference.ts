@@ -9,6 +9,10 @@ export interface Conference {
     registeredCount: number;
     score: number;
     keynoteId: string;
+    reviewCount?: number;
+    averageStars?: number;
+    starHistogram?: number[];
+    lastReviewAt?: string | null;
     reviews: Review[];
 }
 
@@ -17,5 +21,30 @@ export interface Review {
     date: string;
     text: string;
     stars: number;
-    conference: Conference;
+    conferenceId?: string;
+}
+
+export interface ReviewPage {
+    items: Review[];
+    page: number;
+    size: number;
+    hasNext: boolean;
+}
+
+export interface ConferencePage {
+    items: Conference[];
+    nextCursor: string | null;
+}
+
+export interface ConferenceSearchParams {
+    type?: 'ACADEMIC' | 'COMMERCIAL';
+    from?: string;
+    to?: string;
+    keynoteId?: string;
+    minScore?: number;
+    sort?: 'DATE' | 'SCORE';
+    direction?: 'ASC' | 'DESC';
+    size?: number;
+    cursor?: string;
+    includeReviews?: boolean;
 }
@@ -0,0 +1,29 @@
+package com.conference.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * A fully read upstream response that can be replayed to any number of clients.
+ */
+public class CachedResponse {
+    private final HttpStatusCode status;
+    private final HttpHeaders headers;
+    private final byte[] body;
+
+    public CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public Mono<Void> writeTo(ServerHttpResponse response, String cacheStatus) {
+        response.setStatusCode(status);
+        response.getHeaders().putAll(headers);
+        response.getHeaders().setContentLength(body.length);
+        response.getHeaders().set(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER, cacheStatus);
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,55 @@
+package com.conference.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/responsecache}: hit ratios per route, and eviction of one route
+ * ({@code DELETE /actuator/responsecache/{routeId}}) or all of them.
+ */
+@Component
+@Endpoint(id = "responsecache")
+public class ResponseCacheEndpoint {
+
+    private final ResponseCacheRegistry registry;
+
+    public ResponseCacheEndpoint(ResponseCacheRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> caches() {
+        Map<String, Map<String, Object>> caches = new LinkedHashMap<>();
+        registry.getCaches().forEach((routeId, cache) -> {
+            CacheStats stats = cache.getCache().stats();
+            Map<String, Object> route = new LinkedHashMap<>();
+            route.put("size", cache.getCache().estimatedSize());
+            route.put("hitCount", stats.hitCount());
+            route.put("missCount", stats.missCount());
+            route.put("hitRatio", stats.hitRate());
+            route.put("evictionCount", stats.evictionCount());
+            caches.put(routeId, route);
+        });
+        return caches;
+    }
+
+    @DeleteOperation
+    public void invalidateAll() {
+        registry.getCaches().values().forEach(RouteResponseCache::invalidateAll);
+    }
+
+    @DeleteOperation
+    public void invalidate(@Selector String routeId) {
+        RouteResponseCache cache = registry.getCaches().get(routeId);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
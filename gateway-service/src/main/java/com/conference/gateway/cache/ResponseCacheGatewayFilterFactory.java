@@ -0,0 +1,271 @@
+package com.conference.gateway.cache;
+
+import com.conference.gateway.support.StreamingRequests;
+import io.micrometer.core.instrument.Counter;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Caches successful JSON responses to GET requests of a route and collapses identical concurrent
+ * requests into one upstream call.
+ * <p>
+ * Responses are keyed by path, query string and the caller's granted authorities, so callers
+ * with the same authorities share entries. A request with {@code Cache-Control: no-cache}
+ * skips the cache and refreshes it. A successful non-GET request through the route, such as a
+ * command, evicts the whole route. Streaming responses (NDJSON, server-sent events), non-200
+ * responses and responses marked {@code no-store} or {@code private} pass through untouched.
+ * <pre>
+ * filters:
+ *   - name: ResponseCache
+ *     args:
+ *       ttl: 2s
+ *       max-entries: 1000
+ *       max-body-size: 1MB
+ * </pre>
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    public static final String HIT = "HIT";
+    public static final String MISS = "MISS";
+    public static final String COALESCED = "COALESCED";
+    private static final String ANONYMOUS_SCOPE = "anonymous";
+
+    private final ResponseCacheRegistry registry;
+
+    public ResponseCacheGatewayFilterFactory(ResponseCacheRegistry registry) {
+        super(Config.class);
+        this.registry = registry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("ttl", "maxEntries");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        RouteResponseCache cache = registry.forRoute(config.getRouteId(), config.getTtl(), config.getMaxEntries());
+        Counter coalesced = Counter.builder(ResponseCacheRegistry.METRIC_PREFIX + ".coalesced")
+                .description("GET requests answered by another request's upstream call")
+                .tag("route", config.getRouteId())
+                .register(registry.getMeterRegistry());
+
+        // Runs inside NettyWriteResponseFilter, so that filter writes to the capturing response.
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange).doOnSuccess(done -> {
+                    if (exchange.getResponse().getStatusCode() != null && exchange.getResponse().getStatusCode().is2xxSuccessful()) {
+                        cache.invalidateAll();
+                    }
+                });
+            }
+            // A follower would wait for the whole stream, and the body could not be cached anyway.
+            if (StreamingRequests.isStreaming(request)) {
+                return chain.filter(exchange);
+            }
+
+            return exchange.getPrincipal()
+                    .map(ResponseCacheGatewayFilterFactory::scopeOf)
+                    .defaultIfEmpty(ANONYMOUS_SCOPE)
+                    .flatMap(scope -> {
+                        String key = request.getPath().value() + '?' + Optional.ofNullable(request.getURI().getRawQuery()).orElse("") + '|' + scope;
+                        if (!noCache(request)) {
+                            CachedResponse cached = cache.get(key);
+                            if (cached != null) {
+                                return cached.writeTo(exchange.getResponse(), HIT);
+                            }
+                        }
+
+                        Sinks.One<CachedResponse> sink = Sinks.one();
+                        Mono<CachedResponse> shared = sink.asMono();
+                        Mono<CachedResponse> leader = cache.joinOrLead(key, shared);
+                        if (leader != null) {
+                            return leader.map(Optional::of)
+                                    .defaultIfEmpty(Optional.empty())
+                                    .flatMap(response -> {
+                                        if (response.isEmpty()) {
+                                            return chain.filter(exchange);
+                                        }
+                                        coalesced.increment();
+                                        return response.get().writeTo(exchange.getResponse(), COALESCED);
+                                    });
+                        }
+
+                        CapturingResponse capturing = new CapturingResponse(exchange.getResponse(), cache, key, sink, config);
+                        return chain.filter(exchange.mutate().response(capturing).build())
+                                .doFinally(signal -> cache.complete(key, shared, sink));
+                    });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private static String scopeOf(Principal principal) {
+        if (principal instanceof Authentication authentication) {
+            return authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .sorted()
+                    .collect(Collectors.joining(","));
+        }
+        return ANONYMOUS_SCOPE;
+    }
+
+    private static boolean noCache(ServerHttpRequest request) {
+        String cacheControl = request.getHeaders().getCacheControl();
+        return cacheControl != null && cacheControl.contains("no-cache");
+    }
+
+    private static boolean cacheable(ServerHttpResponse response) {
+        MediaType contentType = response.getHeaders().getContentType();
+        String cacheControl = response.getHeaders().getCacheControl();
+        return response.getStatusCode() == HttpStatus.OK
+                && contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")));
+    }
+
+    /**
+     * Reads the upstream body once, stores it if it can be cached, hands it to waiting followers
+     * and writes it to the leader's client.
+     */
+    private static class CapturingResponse extends ServerHttpResponseDecorator {
+        private final RouteResponseCache cache;
+        private final String key;
+        private final Sinks.One<CachedResponse> sink;
+        private final Config config;
+
+        CapturingResponse(ServerHttpResponse delegate, RouteResponseCache cache, String key,
+                          Sinks.One<CachedResponse> sink, Config config) {
+            super(delegate);
+            this.cache = cache;
+            this.key = key;
+            this.sink = sink;
+            this.config = config;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long maxBodySize = config.getMaxBodySize().toBytes();
+            if (!cacheable(getDelegate()) || getHeaders().getContentLength() > maxBodySize) {
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+            // A chunked body has no Content-Length, so it is held back only up to the size limit.
+            // A longer one is passed through as it arrives, and neither cached nor handed to followers.
+            AtomicLong size = new AtomicLong();
+            AtomicBoolean firstChunk = new AtomicBoolean(true);
+            Flux<DataBuffer> captured = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBodySize)
+                    .concatMapIterable(buffers -> {
+                        if (!firstChunk.getAndSet(false) || size.get() > maxBodySize) {
+                            sink.tryEmitEmpty();
+                            return buffers;
+                        }
+                        return List.of(capture(buffers));
+                    })
+                    .doOnComplete(sink::tryEmitEmpty)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            return super.writeWith(captured);
+        }
+
+        /**
+         * Stores a complete body, hands it to the followers and returns it for the leader's client.
+         */
+        private DataBuffer capture(List<DataBuffer> buffers) {
+            DataBuffer joined = bufferFactory().join(buffers);
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            headers.remove(HttpHeaders.CONNECTION);
+            CachedResponse response = new CachedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), bytes);
+            cache.put(key, response);
+            sink.tryEmitValue(response);
+
+            // The response is committed with the first buffer, which this is.
+            getHeaders().set(CACHE_STATUS_HEADER, MISS);
+            return bufferFactory().wrap(bytes);
+        }
+
+        // A streamed body is never cached, even when the request did not look like a stream, so
+        // followers make their own calls instead of waiting for the whole stream.
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            sink.tryEmitEmpty();
+            return super.writeAndFlushWith(body);
+        }
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration ttl = Duration.ofSeconds(2);
+        private long maxEntries = 1000;
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public DataSize getMaxBodySize() {
+            return maxBodySize;
+        }
+
+        public void setMaxBodySize(DataSize maxBodySize) {
+            this.maxBodySize = maxBodySize;
+        }
+    }
+}
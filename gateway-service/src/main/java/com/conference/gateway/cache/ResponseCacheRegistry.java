@@ -0,0 +1,42 @@
+package com.conference.gateway.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the response cache of every route using the {@code ResponseCache} filter and publishes
+ * their statistics as {@code gateway.response.cache.*} meters tagged with the route id.
+ */
+@Component
+public class ResponseCacheRegistry {
+
+    public static final String METRIC_PREFIX = "gateway.response.cache";
+
+    private final Map<String, RouteResponseCache> caches = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ResponseCacheRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RouteResponseCache forRoute(String routeId, Duration ttl, long maxEntries) {
+        return caches.computeIfAbsent(routeId, id -> {
+            RouteResponseCache cache = new RouteResponseCache(ttl, maxEntries);
+            CaffeineCacheMetrics.monitor(meterRegistry, cache.getCache(), METRIC_PREFIX, "route", id);
+            return cache;
+        });
+    }
+
+    public Map<String, RouteResponseCache> getCaches() {
+        return caches;
+    }
+
+    public MeterRegistry getMeterRegistry() {
+        return meterRegistry;
+    }
+}
@@ -0,0 +1,58 @@
+package com.conference.gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cached responses of one route, plus the upstream calls currently in flight for it. The
+ * first request for a key becomes the leader and goes upstream; identical requests that arrive
+ * before it completes wait for its response instead of issuing their own.
+ */
+public class RouteResponseCache {
+
+    private final Cache<String, CachedResponse> cache;
+    private final Map<String, Mono<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    RouteResponseCache(Duration ttl, long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    public Cache<String, CachedResponse> getCache() {
+        return cache;
+    }
+
+    public CachedResponse get(String key) {
+        return cache.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Registers {@code response} as the in-flight call for {@code key}, or returns the call already
+     * registered. An in-flight call completes empty when its response cannot be shared.
+     */
+    Mono<CachedResponse> joinOrLead(String key, Mono<CachedResponse> response) {
+        return inFlight.putIfAbsent(key, response);
+    }
+
+    void complete(String key, Mono<CachedResponse> response, Sinks.One<CachedResponse> sink) {
+        inFlight.remove(key, response);
+        sink.tryEmitEmpty();
+    }
+}
@@ -0,0 +1,10 @@
+package com.conference.gateway.config;
+
+import com.conference.gateway.loadbalancer.LatencyAwareLoadBalancerConfig;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+}
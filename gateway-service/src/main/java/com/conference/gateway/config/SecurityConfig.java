@@ -1,15 +1,34 @@
 package com.conference.gateway.config;
 
+import com.conference.gateway.security.CachingReactiveJwtDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
 
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(@Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuer,
+                                         @Value("${security.jwt.jwk-set-uri:}") String jwkSetUri,
+                                         @Value("${security.jwt.refresh-interval:5m}") Duration refreshInterval,
+                                         @Value("${security.jwt.min-refresh-interval:30s}") Duration minRefreshInterval,
+                                         @Value("${security.jwt.max-verified-tokens:10000}") long maxVerifiedTokens,
+                                         WebClient.Builder webClientBuilder,
+                                         MeterRegistry meterRegistry) {
+        return new CachingReactiveJwtDecoder(issuer, jwkSetUri, webClientBuilder.build(), refreshInterval,
+                minRefreshInterval, maxVerifiedTokens, meterRegistry);
+    }
+
     @Bean
     public SecurityWebFilterChain springSecurityFilterChain(ServerHttpSecurity http) {
         http
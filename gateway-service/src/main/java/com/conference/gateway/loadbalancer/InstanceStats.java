@@ -0,0 +1,84 @@
+package com.conference.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What the gateway has observed of one service instance: a peak-sensitive moving average of its
+ * response time, the requests currently in flight to it, and its consecutive failures.
+ * <p>
+ * The average jumps straight to any slower sample and decays with time constant
+ * {@code decayNanos}: towards faster samples, and towards zero while no sample arrives, as in
+ * Finagle's PeakEwma. A replica that slows down is avoided at once and recovers gradually, even
+ * when it is no longer picked and so gets no samples. After {@code failureThreshold} consecutive failures the instance is ejected for
+ * {@code openNanos}; once that passes, a single further failure ejects it again and a success
+ * readmits it.
+ */
+class InstanceStats {
+
+    private final long decayNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private double latencyNanos;
+    private long lastUpdateNanos;
+    // nanoTime values may be negative, so "never ejected" needs its own flag rather than a sentinel.
+    private volatile boolean ejected;
+    private volatile long openUntilNanos;
+
+    InstanceStats(long decayNanos, int failureThreshold, long openNanos) {
+        this.decayNanos = decayNanos;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openNanos;
+    }
+
+    /**
+     * Expected cost of sending one more request here; lower is better.
+     */
+    synchronized double cost(long nowNanos) {
+        // Reading observes a zero latency, so the average keeps falling while no sample arrives.
+        observe(0, nowNanos);
+        return latencyNanos * (inFlight.get() + 1);
+    }
+
+    boolean isAvailable(long nowNanos) {
+        return !ejected || nowNanos - openUntilNanos >= 0;
+    }
+
+    void onStart() {
+        inFlight.incrementAndGet();
+    }
+
+    void onComplete(long latency, boolean failed, long nowNanos) {
+        synchronized (this) {
+            observe(latency, nowNanos);
+        }
+        onComplete(failed, nowNanos);
+    }
+
+    /**
+     * Completes a request whose duration says nothing about the instance's latency, such as a stream.
+     */
+    void onComplete(boolean failed, long nowNanos) {
+        inFlight.decrementAndGet();
+        if (!failed) {
+            consecutiveFailures.set(0);
+            ejected = false;
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openUntilNanos = nowNanos + openNanos;
+            ejected = true;
+            consecutiveFailures.set(failureThreshold - 1);
+        }
+    }
+
+    void onDiscard() {
+        inFlight.decrementAndGet();
+    }
+
+    // Until the first sample the average is zero, which any weight keeps at zero.
+    private void observe(double latency, long nowNanos) {
+        double weight = Math.exp(-(double) Math.max(nowNanos - lastUpdateNanos, 0) / decayNanos);
+        latencyNanos = latency > latencyNanos ? latency : latencyNanos * weight + latency * (1 - weight);
+        lastUpdateNanos = nowNanos;
+    }
+}
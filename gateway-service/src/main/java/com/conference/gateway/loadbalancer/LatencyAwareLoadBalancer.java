@@ -0,0 +1,143 @@
+package com.conference.gateway.loadbalancer;
+
+import com.conference.gateway.support.StreamingRequests;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks two random available instances and sends the request to the one with the lower
+ * {@link InstanceStats#cost() cost}, its response time average times its in-flight requests plus
+ * one ("power of two choices"). Instances ejected after repeated failures are skipped unless
+ * every instance is ejected.
+ * <p>
+ * Also registered as the service's {@link LoadBalancerLifecycle}, which is how it learns the
+ * outcome and duration of every request it routed. Connection errors, timeouts and 5xx responses
+ * count as failures. Streams (NDJSON exports and bulk commands, server-sent events) last as long
+ * as the client reads them, so they are not counted in flight and their duration is not sampled.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final String START_ATTRIBUTE = LatencyAwareLoadBalancer.class.getName() + ".start";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final long decayNanos;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId,
+                                    Duration decayTime, int failureThreshold, Duration openDuration) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.decayNanos = decayTime.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        long now = System.nanoTime();
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (statsOf(instance).isAvailable(now)) {
+                available.add(instance);
+            }
+        }
+        List<ServiceInstance> candidates = available.isEmpty() ? instances : available;
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return new DefaultResponse(statsOf(a).cost(now) <= statsOf(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        RequestData requestData = request.getContext().getClientRequest();
+        if (lbResponse.hasServer() && !StreamingRequests.isStreaming(requestData.getUrl().getPath(), requestData.getHeaders())) {
+            statsOf(lbResponse.getServer()).onStart();
+            attributesOf(request).put(START_ATTRIBUTE, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completion) {
+        Response<ServiceInstance> lbResponse = completion.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        Object start = attributesOf(completion.getLoadBalancerRequest()).remove(START_ATTRIBUTE);
+        if (!(start instanceof Long startNanos)) {
+            return;
+        }
+        InstanceStats instanceStats = statsOf(lbResponse.getServer());
+        if (completion.status() == CompletionContext.Status.DISCARD) {
+            instanceStats.onDiscard();
+            return;
+        }
+        ResponseData response = completion.getClientResponse();
+        boolean failed = completion.status() == CompletionContext.Status.FAILED
+                || response != null && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError();
+        long now = System.nanoTime();
+        if (response != null && response.getHeaders() != null && StreamingRequests.isStreaming(response.getHeaders().getContentType())) {
+            instanceStats.onComplete(failed, now);
+        } else {
+            instanceStats.onComplete(now - startNanos, failed, now);
+        }
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getHost() + ':' + instance.getPort(),
+                key -> new InstanceStats(decayNanos, failureThreshold, openNanos));
+    }
+
+    private static Map<String, Object> attributesOf(Request<RequestDataContext> request) {
+        return request.getContext().getClientRequest().getAttributes();
+    }
+}
@@ -0,0 +1,28 @@
+package com.conference.gateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Load balancer configuration applied to every service, in each service's own load balancer
+ * context. Deliberately not a {@code @Configuration}, so component scanning does not pick it up
+ * into the main context.
+ */
+public class LatencyAwareLoadBalancerConfig {
+
+    @Bean
+    public LatencyAwareLoadBalancer reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                       LoadBalancerClientFactory clientFactory,
+                                                                       @Value("${gateway.loadbalancer.decay-time:10s}") Duration decayTime,
+                                                                       @Value("${gateway.loadbalancer.failure-threshold:5}") int failureThreshold,
+                                                                       @Value("${gateway.loadbalancer.open-duration:10s}") Duration openDuration) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, decayTime, failureThreshold, openDuration);
+    }
+}
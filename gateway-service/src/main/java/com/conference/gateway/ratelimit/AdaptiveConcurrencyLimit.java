@@ -0,0 +1,96 @@
+package com.conference.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows backend latency, in the style of a gradient limiter. Every
+ * {@code window} the average latency of the window is compared to the long-term average, an
+ * exponential moving average over about {@link #LONG_RTT_WINDOWS} windows: while they are close
+ * the limit grows by about its square root, and as latency rises the limit shrinks proportionally.
+ * The baseline is an average rather than the fastest request seen, which a single cheap request
+ * would pull far below the route's typical latency and keep the limit at its minimum.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final int LONG_RTT_WINDOWS = 600;
+    private static final double MIN_GRADIENT = 0.5;
+    // Once latency is back well below the baseline, the baseline follows faster than the average.
+    private static final double RECOVERY_RATIO = 2.0;
+    private static final double RECOVERY_DECAY = 0.95;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicLong nextUpdate;
+    private volatile double limit;
+    private double longLatency;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, double tolerance, long windowNanos, long nowNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = windowNanos;
+        this.nextUpdate = new AtomicLong(nowNanos + windowNanos);
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Reserves a slot for a request, unless the limit is reached.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void onSample(long latencyNanos, long nowNanos) {
+        latencySum.add(latencyNanos);
+        samples.increment();
+
+        long update = nextUpdate.get();
+        if (nowNanos >= update && nextUpdate.compareAndSet(update, nowNanos + windowNanos)) {
+            // Only the thread that moved the window gets here, so the update needs no lock.
+            long count = samples.sumThenReset();
+            long sum = latencySum.sumThenReset();
+            if (count == 0) {
+                return;
+            }
+            double average = (double) sum / count;
+            if (longLatency == 0) {
+                longLatency = average;
+            } else {
+                longLatency += (average - longLatency) / LONG_RTT_WINDOWS;
+                if (longLatency > average * RECOVERY_RATIO) {
+                    longLatency *= RECOVERY_DECAY;
+                }
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longLatency / average));
+            double next = limit * gradient + Math.sqrt(limit);
+            limit = Math.max(minLimit, Math.min(maxLimit, next));
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,269 @@
+package com.conference.gateway.ratelimit;
+
+import com.conference.gateway.cache.ResponseCacheGatewayFilterFactory;
+import com.conference.gateway.support.StreamingRequests;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protects a route with in-memory token buckets, per caller and for the route as a whole, and
+ * with an adaptive concurrency limit that sheds load when backend latency rises. Callers are
+ * identified by their authenticated name, or by their address when anonymous.
+ * <p>
+ * Rate-limited requests get {@code 429 Too Many Requests} and shed requests
+ * {@code 503 Service Unavailable}, both with {@code Retry-After}. Every decision is counted in
+ * {@code gateway.ratelimit.decisions}, tagged with route and decision; the current limit and
+ * in-flight count are published as {@code gateway.ratelimit.concurrency.*} gauges.
+ * <p>
+ * Streaming requests (NDJSON exports and bulk commands, server-sent events) pass the token buckets
+ * but take no concurrency slot: they stay open for as long as the stream, so counting them would
+ * let a few exports or live dashboards shed every short request on the route.
+ * <p>
+ * State is per gateway instance, so with several instances the effective limits multiply.
+ */
+@Component
+public class RateLimitGatewayFilterFactory extends AbstractGatewayFilterFactory<RateLimitGatewayFilterFactory.Config> {
+
+    public static final String METRIC_PREFIX = "gateway.ratelimit";
+
+    private static final String ALLOWED = "allowed";
+    private static final String RATE_LIMITED = "rate_limited";
+    private static final String SHED = "shed";
+    private static final long SHED_RETRY_AFTER_SECONDS = 1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimitGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        RouteLimiter limiter = limiterFor(config);
+        Counter allowed = decisions(routeId, ALLOWED);
+        Counter rateLimited = decisions(routeId, RATE_LIMITED);
+        Counter shed = decisions(routeId, SHED);
+        AdaptiveConcurrencyLimit concurrencyLimit = limiter.getConcurrencyLimit();
+
+        // Ahead of the response cache, so bursts are limited even when they would hit it.
+        return new OrderedGatewayFilter((exchange, chain) -> exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty(addressOf(exchange))
+                .flatMap(user -> {
+                    long wait = limiter.tryAcquire(user, System.nanoTime());
+                    if (wait > 0) {
+                        rateLimited.increment();
+                        return reject(exchange.getResponse(), HttpStatus.TOO_MANY_REQUESTS,
+                                Math.max(1, TimeUnit.NANOSECONDS.toSeconds(wait + TimeUnit.SECONDS.toNanos(1) - 1)));
+                    }
+                    if (StreamingRequests.isStreaming(exchange.getRequest())) {
+                        allowed.increment();
+                        return chain.filter(exchange);
+                    }
+                    if (!concurrencyLimit.tryAcquire()) {
+                        shed.increment();
+                        return reject(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, SHED_RETRY_AFTER_SECONDS);
+                    }
+
+                    allowed.increment();
+                    long start = System.nanoTime();
+                    return chain.filter(exchange).doFinally(signal -> {
+                        concurrencyLimit.release();
+                        if (reflectsBackendLatency(exchange.getResponse())) {
+                            long now = System.nanoTime();
+                            concurrencyLimit.onSample(now - start, now);
+                        }
+                    });
+                }), NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2);
+    }
+
+    /**
+     * Returns the route's limiter, keeping its state across route refreshes as long as the route's
+     * configuration is unchanged. A changed configuration gets a new limiter.
+     */
+    RouteLimiter limiterFor(Config config) {
+        String routeId = config.getRouteId();
+        RouteLimiter limiter = limiters.compute(routeId, (id, existing) ->
+                existing != null && existing.getConfig().equals(config) ? existing : new RouteLimiter(config));
+        // Registered once per route, reading whichever limiter is current.
+        Gauge.builder(METRIC_PREFIX + ".concurrency.limit", limiters, current -> current.get(routeId).getConcurrencyLimit().getLimit())
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".concurrency.in-flight", limiters, current -> current.get(routeId).getConcurrencyLimit().getInFlight())
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private Counter decisions(String routeId, String decision) {
+        return Counter.builder(METRIC_PREFIX + ".decisions")
+                .tag("route", routeId)
+                .tag("decision", decision)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Cache hits and coalesced requests never reached the backend, and streamed responses last as
+     * long as the stream, so neither says anything about backend latency.
+     */
+    private static boolean reflectsBackendLatency(ServerHttpResponse response) {
+        String cacheStatus = response.getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER);
+        return (cacheStatus == null || ResponseCacheGatewayFilterFactory.MISS.equals(cacheStatus))
+                && !StreamingRequests.isStreaming(response.getHeaders().getContentType());
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, HttpStatus status, long retryAfterSeconds) {
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private static String addressOf(ServerWebExchange exchange) {
+        InetSocketAddress address = exchange.getRequest().getRemoteAddress();
+        return address == null || address.getAddress() == null ? "unknown" : address.getAddress().getHostAddress();
+    }
+
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private double userReplenishRate;
+        private long userBurstCapacity = 1;
+        private double routeReplenishRate;
+        private long routeBurstCapacity = 1;
+        private long maxTrackedUsers = 100_000;
+        private int minConcurrency = 10;
+        private int maxConcurrency = 500;
+        private double latencyTolerance = 2.0;
+        private Duration limitWindow = Duration.ofMillis(100);
+
+        @Override
+        public String getRouteId() {
+            return routeId;
+        }
+
+        @Override
+        public void setRouteId(String routeId) {
+            this.routeId = routeId;
+        }
+
+        public double getUserReplenishRate() {
+            return userReplenishRate;
+        }
+
+        public void setUserReplenishRate(double userReplenishRate) {
+            this.userReplenishRate = userReplenishRate;
+        }
+
+        public long getUserBurstCapacity() {
+            return userBurstCapacity;
+        }
+
+        public void setUserBurstCapacity(long userBurstCapacity) {
+            this.userBurstCapacity = userBurstCapacity;
+        }
+
+        public double getRouteReplenishRate() {
+            return routeReplenishRate;
+        }
+
+        public void setRouteReplenishRate(double routeReplenishRate) {
+            this.routeReplenishRate = routeReplenishRate;
+        }
+
+        public long getRouteBurstCapacity() {
+            return routeBurstCapacity;
+        }
+
+        public void setRouteBurstCapacity(long routeBurstCapacity) {
+            this.routeBurstCapacity = routeBurstCapacity;
+        }
+
+        public long getMaxTrackedUsers() {
+            return maxTrackedUsers;
+        }
+
+        public void setMaxTrackedUsers(long maxTrackedUsers) {
+            this.maxTrackedUsers = maxTrackedUsers;
+        }
+
+        public int getMinConcurrency() {
+            return minConcurrency;
+        }
+
+        public void setMinConcurrency(int minConcurrency) {
+            this.minConcurrency = minConcurrency;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public double getLatencyTolerance() {
+            return latencyTolerance;
+        }
+
+        public void setLatencyTolerance(double latencyTolerance) {
+            this.latencyTolerance = latencyTolerance;
+        }
+
+        public Duration getLimitWindow() {
+            return limitWindow;
+        }
+
+        public void setLimitWindow(Duration limitWindow) {
+            this.limitWindow = limitWindow;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Config other)) {
+                return false;
+            }
+            return Double.compare(userReplenishRate, other.userReplenishRate) == 0
+                    && userBurstCapacity == other.userBurstCapacity
+                    && Double.compare(routeReplenishRate, other.routeReplenishRate) == 0
+                    && routeBurstCapacity == other.routeBurstCapacity
+                    && maxTrackedUsers == other.maxTrackedUsers
+                    && minConcurrency == other.minConcurrency
+                    && maxConcurrency == other.maxConcurrency
+                    && Double.compare(latencyTolerance, other.latencyTolerance) == 0
+                    && Objects.equals(routeId, other.routeId)
+                    && Objects.equals(limitWindow, other.limitWindow);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(routeId, userReplenishRate, userBurstCapacity, routeReplenishRate, routeBurstCapacity,
+                    maxTrackedUsers, minConcurrency, maxConcurrency, latencyTolerance, limitWindow);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.conference.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * The rate limiting state of one route: a token bucket per caller, one for the route as a whole,
+ * and the route's adaptive concurrency limit.
+ */
+public class RouteLimiter {
+
+    private static final Duration IDLE_BUCKET_EXPIRY = Duration.ofMinutes(10);
+
+    private final RateLimitGatewayFilterFactory.Config config;
+    private final Cache<String, TokenBucket> userBuckets;
+    private final TokenBucket routeBucket;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    RouteLimiter(RateLimitGatewayFilterFactory.Config config) {
+        this.config = config;
+        this.userBuckets = Caffeine.newBuilder()
+                .expireAfterAccess(IDLE_BUCKET_EXPIRY)
+                .maximumSize(config.getMaxTrackedUsers())
+                .build();
+        this.routeBucket = config.getRouteReplenishRate() > 0
+                ? new TokenBucket(config.getRouteReplenishRate(), config.getRouteBurstCapacity())
+                : null;
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(config.getMinConcurrency(), config.getMaxConcurrency(),
+                config.getLatencyTolerance(), config.getLimitWindow().toNanos(), System.nanoTime());
+    }
+
+    /**
+     * Takes a token from the route bucket and one from the caller's. A request only counts against
+     * both buckets when both admit it: a token taken from one is given back when the other rejects.
+     *
+     * @return 0 if the caller may proceed, otherwise the nanoseconds until it may retry
+     */
+    long tryAcquire(String user, long nowNanos) {
+        if (routeBucket != null) {
+            long wait = routeBucket.tryAcquire(nowNanos);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        if (config.getUserReplenishRate() > 0) {
+            TokenBucket bucket = userBuckets.get(user,
+                    key -> new TokenBucket(config.getUserReplenishRate(), config.getUserBurstCapacity()));
+            long wait = bucket.tryAcquire(nowNanos);
+            if (wait > 0) {
+                if (routeBucket != null) {
+                    routeBucket.refund();
+                }
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    RateLimitGatewayFilterFactory.Config getConfig() {
+        return config;
+    }
+
+    AdaptiveConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+}
@@ -0,0 +1,48 @@
+package com.conference.gateway.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, implemented as the generic cell rate algorithm: the whole state is the
+ * theoretical arrival time of the next request, updated with a single compare-and-set. Admits
+ * {@code burstCapacity} requests at once and {@code replenishRate} per second on average.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    public TokenBucket(double replenishRate, long burstCapacity) {
+        this.intervalNanos = Math.max((long) (NANOS_PER_SECOND / replenishRate), 1);
+        this.toleranceNanos = intervalNanos * (Math.max(burstCapacity, 1) - 1);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long allowedAt = current == Long.MIN_VALUE ? nowNanos : Math.max(current, nowNanos);
+            long wait = allowedAt - nowNanos - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, allowedAt + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire} for a request that was rejected further on.
+     */
+    public void refund() {
+        theoreticalArrival.addAndGet(-intervalNanos);
+    }
+}
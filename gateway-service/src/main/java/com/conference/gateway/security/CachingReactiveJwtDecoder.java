@@ -0,0 +1,208 @@
+package com.conference.gateway.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Validates JWTs against a locally held copy of the issuer's JWK set and remembers tokens it has
+ * already verified.
+ * <p>
+ * Nothing is fetched until the first token arrives, so the gateway starts while the issuer is
+ * down. The JWK set location is then discovered from the issuer's OpenID configuration (unless
+ * configured directly) and the set is refreshed in the background. A token signed with an
+ * unknown key id triggers an immediate refresh, at most once per {@code minRefreshInterval}, which
+ * picks up rotated keys. When a refresh drops a key, every remembered token is forgotten.
+ * <p>
+ * Verified tokens are kept, keyed by the SHA-256 of the token, until they expire.
+ */
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CachingReactiveJwtDecoder.class);
+    private static final String DISCOVERY_PATH = "/.well-known/openid-configuration";
+
+    private final String issuer;
+    private final WebClient webClient;
+    private final Duration minRefreshInterval;
+    private final Mono<String> jwkSetUri;
+    private final NimbusReactiveJwtDecoder delegate;
+    private final Cache<String, Jwt> verified;
+    private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>();
+    private final AtomicReference<Mono<JWKSet>> refreshing = new AtomicReference<>();
+    private final Disposable backgroundRefresh;
+    private volatile Instant lastRefresh = Instant.EPOCH;
+
+    public CachingReactiveJwtDecoder(String issuer, String jwkSetUri, WebClient webClient, Duration refreshInterval,
+                                     Duration minRefreshInterval, long maxVerifiedTokens, MeterRegistry meterRegistry) {
+        this.issuer = issuer;
+        this.webClient = webClient;
+        this.minRefreshInterval = minRefreshInterval;
+        this.jwkSetUri = jwkSetUri != null && !jwkSetUri.isBlank()
+                ? Mono.just(jwkSetUri)
+                : discoverJwkSetUri().cache(uri -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+
+        this.delegate = NimbusReactiveJwtDecoder.withJwkSource(this::keysFor).build();
+        this.delegate.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxVerifiedTokens)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "gateway.jwt.verified");
+
+        this.backgroundRefresh = Flux.interval(refreshInterval)
+                .filter(tick -> jwkSet.get() != null)
+                .concatMap(tick -> refresh().onErrorResume(e -> {
+                    log.warn("Background refresh of the JWK set of {} failed: {}", issuer, e.getMessage());
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String key = hash(token);
+        Jwt cached = verified.getIfPresent(key);
+        if (cached != null && (cached.getExpiresAt() == null || cached.getExpiresAt().isAfter(Instant.now()))) {
+            return Mono.just(cached);
+        }
+        return delegate.decode(token).doOnNext(jwt -> verified.put(key, jwt));
+    }
+
+    @Override
+    public void destroy() {
+        backgroundRefresh.dispose();
+    }
+
+    private Flux<JWK> keysFor(SignedJWT jwt) {
+        JWSHeader header = jwt.getHeader();
+        JWKSet current = jwkSet.get();
+        if (current != null) {
+            List<JWK> keys = select(current, header);
+            if (!keys.isEmpty() || Duration.between(lastRefresh, Instant.now()).compareTo(minRefreshInterval) < 0) {
+                return Flux.fromIterable(keys);
+            }
+        }
+        return refresh().flatMapIterable(keys -> select(keys, header));
+    }
+
+    private static List<JWK> select(JWKSet keys, JWSHeader header) {
+        return new JWKSelector(JWKMatcher.forJWSHeader(header)).select(keys);
+    }
+
+    /**
+     * Fetches the JWK set; concurrent callers share one fetch.
+     */
+    private Mono<JWKSet> refresh() {
+        Mono<JWKSet> inFlight = refreshing.get();
+        if (inFlight != null) {
+            return inFlight;
+        }
+        Mono<JWKSet> fetch = jwkSetUri
+                .flatMap(uri -> webClient.get().uri(uri).retrieve().bodyToMono(String.class))
+                .map(CachingReactiveJwtDecoder::parse)
+                .doOnNext(this::replace)
+                .doFinally(signal -> refreshing.set(null))
+                .cache();
+        return refreshing.compareAndSet(null, fetch) ? fetch : refresh();
+    }
+
+    private void replace(JWKSet keys) {
+        JWKSet previous = jwkSet.getAndSet(keys);
+        lastRefresh = Instant.now();
+        if (previous != null) {
+            Set<String> kept = new HashSet<>();
+            keys.getKeys().forEach(key -> kept.add(key.getKeyID()));
+            if (previous.getKeys().stream().anyMatch(key -> !kept.contains(key.getKeyID()))) {
+                log.info("Signing keys of {} were removed; forgetting verified tokens", issuer);
+                verified.invalidateAll();
+            }
+        }
+    }
+
+    private Mono<String> discoverJwkSetUri() {
+        return webClient.get()
+                .uri(issuer + DISCOVERY_PATH)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {})
+                .map(configuration -> {
+                    Object uri = configuration.get("jwks_uri");
+                    if (uri == null) {
+                        throw new JwtException("No jwks_uri in the OpenID configuration of " + issuer);
+                    }
+                    return uri.toString();
+                });
+    }
+
+    private static JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (ParseException e) {
+            throw new JwtException("Malformed JWK set", e);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, Jwt> {
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            if (jwt.getExpiresAt() == null) {
+                return 0;
+            }
+            return Math.max(Duration.between(Instant.now(), jwt.getExpiresAt()).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
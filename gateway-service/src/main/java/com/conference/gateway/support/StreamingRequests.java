@@ -0,0 +1,38 @@
+package com.conference.gateway.support;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+/**
+ * Recognizes requests whose exchange lasts as long as a stream: NDJSON exports and bulk commands,
+ * and server-sent events. Their responses are written and flushed as they are produced.
+ */
+public final class StreamingRequests {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private StreamingRequests() {
+    }
+
+    public static boolean isStreaming(ServerHttpRequest request) {
+        return isStreaming(request.getPath().value(), request.getHeaders());
+    }
+
+    public static boolean isStreaming(String path, HttpHeaders headers) {
+        if (path.endsWith("/export") || path.endsWith("/live") || path.endsWith("/bulk")) {
+            return true;
+        }
+        MediaType contentType = headers.getContentType();
+        if (contentType != null && NDJSON.isCompatibleWith(contentType)) {
+            return true;
+        }
+        return headers.getAccept().stream()
+                .anyMatch(accept -> !accept.isWildcardType() && !accept.isWildcardSubtype()
+                        && (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(accept) || NDJSON.isCompatibleWith(accept)));
+    }
+
+    public static boolean isStreaming(MediaType contentType) {
+        return contentType != null && (MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType) || NDJSON.isCompatibleWith(contentType));
+    }
+}
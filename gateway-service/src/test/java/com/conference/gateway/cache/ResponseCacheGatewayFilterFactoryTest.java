@@ -0,0 +1,86 @@
+package com.conference.gateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void chunkedBodyWithinTheLimitIsCached() {
+        GatewayFilter filter = filter("small", DataSize.ofBytes(64));
+        GatewayFilterChain upstream = chunkedJson("[1,", "2,", "3]");
+
+        MockServerWebExchange first = get();
+        filter.filter(first, upstream).block();
+        MockServerWebExchange second = get();
+        filter.filter(second, upstream).block();
+
+        assertThat(upstreamCalls).hasValue(1);
+        assertThat(first.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo(ResponseCacheGatewayFilterFactory.MISS);
+        assertThat(second.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isEqualTo(ResponseCacheGatewayFilterFactory.HIT);
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("[1,2,3]");
+    }
+
+    @Test
+    void chunkedBodyOverTheLimitPassesThroughUncached() {
+        GatewayFilter filter = filter("large", DataSize.ofBytes(4));
+        GatewayFilterChain upstream = chunkedJson("[1,", "2,", "3,", "4]");
+
+        MockServerWebExchange first = get();
+        filter.filter(first, upstream).block();
+        MockServerWebExchange second = get();
+        filter.filter(second, upstream).block();
+
+        assertThat(upstreamCalls).hasValue(2);
+        assertThat(first.getResponse().getBodyAsString().block()).isEqualTo("[1,2,3,4]");
+        assertThat(first.getResponse().getHeaders().containsKey(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER))
+                .isFalse();
+        assertThat(second.getResponse().getBodyAsString().block()).isEqualTo("[1,2,3,4]");
+    }
+
+    private static GatewayFilter filter(String routeId, DataSize maxBodySize) {
+        ResponseCacheGatewayFilterFactory factory =
+                new ResponseCacheGatewayFilterFactory(new ResponseCacheRegistry(new SimpleMeterRegistry()));
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId(routeId);
+        config.setMaxBodySize(maxBodySize);
+        return factory.apply(config);
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/conferences/queries"));
+    }
+
+    // No Content-Length, as for a chunked upstream response.
+    private GatewayFilterChain chunkedJson(String... chunks) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Flux.fromArray(chunks).map(ResponseCacheGatewayFilterFactoryTest::buffer));
+        };
+    }
+
+    private static DataBuffer buffer(String chunk) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,127 @@
+package com.conference.gateway.loadbalancer;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class InstanceStatsTest {
+
+    private static final long DECAY = TimeUnit.SECONDS.toNanos(10);
+    private static final long OPEN = TimeUnit.SECONDS.toNanos(30);
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(5);
+
+    // System.nanoTime() has an arbitrary origin, so it may be positive, negative or near either bound.
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L, Long.MAX_VALUE - 1_000_000_000_000L})
+    void neverFailedInstanceIsAvailable(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+
+        assertThat(stats.isAvailable(now)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void instanceIsEjectedAfterConsecutiveFailures(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+
+        fail(stats, now, 2);
+        assertThat(stats.isAvailable(now)).isTrue();
+
+        fail(stats, now, 1);
+        assertThat(stats.isAvailable(now)).isFalse();
+        assertThat(stats.isAvailable(now + OPEN - 1)).isFalse();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void ejectionExpiresAfterOpenDuration(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+        fail(stats, now, 3);
+
+        assertThat(stats.isAvailable(now + OPEN)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void expiredInstanceIsEjectedAgainByOneFailure(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+        fail(stats, now, 3);
+        long reopened = now + OPEN;
+
+        fail(stats, reopened, 1);
+
+        assertThat(stats.isAvailable(reopened)).isFalse();
+        assertThat(stats.isAvailable(reopened + OPEN)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void successReadmitsInstance(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+        fail(stats, now, 3);
+        long reopened = now + OPEN;
+
+        stats.onStart();
+        stats.onComplete(LATENCY, false, reopened);
+        fail(stats, reopened, 2);
+
+        assertThat(stats.isAvailable(reopened)).isTrue();
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void slowSampleDecaysWithoutFurtherRequests(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+        long slow = TimeUnit.SECONDS.toNanos(2);
+        stats.onStart();
+        stats.onComplete(slow, false, now);
+
+        assertThat(stats.cost(now)).isEqualTo(slow);
+        assertThat(stats.cost(now + DECAY)).isCloseTo(slow / Math.E, within(1.0));
+        assertThat(stats.cost(now + 10 * DECAY)).isLessThan(LATENCY);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void idleSlowInstanceBecomesCheaperThanBusyFastOne(long now) {
+        InstanceStats slow = new InstanceStats(DECAY, 3, OPEN);
+        slow.onStart();
+        slow.onComplete(TimeUnit.SECONDS.toNanos(2), false, now);
+        assertThat(slow.cost(now)).isGreaterThan(2.0 * LATENCY);
+
+        InstanceStats fast = new InstanceStats(DECAY, 3, OPEN);
+        long later = now;
+        for (int i = 0; i < 200; i++) {
+            later += TimeUnit.MILLISECONDS.toNanos(500);
+            fast.onStart();
+            fast.onComplete(LATENCY, false, later);
+        }
+        fast.onStart();
+
+        assertThat(slow.cost(later)).isLessThan(fast.cost(later));
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 123_456_789_000L, -123_456_789_000L})
+    void completionWithoutSampleLeavesLatencyUnchanged(long now) {
+        InstanceStats stats = new InstanceStats(DECAY, 3, OPEN);
+        stats.onStart();
+        stats.onComplete(LATENCY, false, now);
+        stats.onStart();
+
+        stats.onComplete(false, now);
+
+        assertThat(stats.cost(now)).isEqualTo(LATENCY);
+    }
+
+    private static void fail(InstanceStats stats, long now, int times) {
+        for (int i = 0; i < times; i++) {
+            stats.onStart();
+            stats.onComplete(LATENCY, true, now);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.conference.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long TYPICAL = TimeUnit.MILLISECONDS.toNanos(20);
+
+    @Test
+    void steadyMixOfFastAndSlowRequestsKeepsTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 500, 2.0, WINDOW, 0);
+
+        long now = 0;
+        for (int window = 0; window < 3_000; window++) {
+            now += WINDOW;
+            limit.onSample(FAST, now);
+            limit.onSample(TYPICAL, now);
+            limit.onSample(TYPICAL, now);
+        }
+
+        assertThat(limit.getLimit()).isEqualTo(500);
+    }
+
+    @Test
+    void risingLatencyShrinksTheLimitAndRecoveryRestoresIt() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 500, 2.0, WINDOW, 0);
+        long now = run(limit, 0, 100, TYPICAL);
+
+        now = run(limit, now, 10, TYPICAL * 8);
+        assertThat(limit.getLimit()).isLessThan(50);
+
+        run(limit, now, 100, TYPICAL);
+        assertThat(limit.getLimit()).isEqualTo(500);
+    }
+
+    @Test
+    void slotsAreLimitedAndReleased() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(1, 2, 2.0, WINDOW, 0);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release();
+        assertThat(limit.getInFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    private static long run(AdaptiveConcurrencyLimit limit, long now, int windows, long latency) {
+        for (int window = 0; window < windows; window++) {
+            now += WINDOW;
+            limit.onSample(latency, now);
+        }
+        return now;
+    }
+}
@@ -0,0 +1,43 @@
+package com.conference.gateway.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitGatewayFilterFactoryTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RateLimitGatewayFilterFactory factory = new RateLimitGatewayFilterFactory(meterRegistry);
+
+    @Test
+    void keepsTheLimiterWhileTheConfigurationIsUnchanged() {
+        RouteLimiter limiter = factory.limiterFor(RouteLimiterTest.config(1, 1, 0, 1));
+
+        assertThat(factory.limiterFor(RouteLimiterTest.config(1, 1, 0, 1))).isSameAs(limiter);
+    }
+
+    @Test
+    void rebuildsTheLimiterWhenTheConfigurationChanges() {
+        RouteLimiter before = factory.limiterFor(RouteLimiterTest.config(1, 1, 0, 1));
+        assertThat(before.tryAcquire("alice", 0)).isZero();
+        assertThat(before.tryAcquire("alice", 0)).isPositive();
+
+        RouteLimiter after = factory.limiterFor(RouteLimiterTest.config(1, 5, 0, 1));
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.tryAcquire("alice", 0)).isZero();
+    }
+
+    @Test
+    void gaugesFollowTheCurrentLimiter() {
+        factory.limiterFor(RouteLimiterTest.config(1, 1, 0, 1));
+        RateLimitGatewayFilterFactory.Config changed = RouteLimiterTest.config(1, 1, 0, 1);
+        changed.setMaxConcurrency(200);
+        factory.limiterFor(changed);
+
+        assertThat(meterRegistry.get(RateLimitGatewayFilterFactory.METRIC_PREFIX + ".concurrency.limit")
+                .tag("route", "conferences").gauge().value()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,48 @@
+package com.conference.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteLimiterTest {
+
+    @Test
+    void callersAreNotChargedForRequestsTheRouteRejects() {
+        RouteLimiter limiter = new RouteLimiter(config(0.1, 1, 1, 1));
+
+        assertThat(limiter.tryAcquire("alice", 0)).isZero();
+        assertThat(limiter.tryAcquire("bob", 0)).isPositive();
+
+        // Bob's bucket is still full once the route has a token again.
+        assertThat(limiter.tryAcquire("bob", 1_000_000_000L)).isZero();
+    }
+
+    @Test
+    void theRouteIsNotChargedForRequestsACallerBucketRejects() {
+        RouteLimiter limiter = new RouteLimiter(config(1, 1, 1, 2));
+
+        assertThat(limiter.tryAcquire("alice", 0)).isZero();
+        assertThat(limiter.tryAcquire("alice", 0)).isPositive();
+
+        assertThat(limiter.tryAcquire("bob", 0)).isZero();
+    }
+
+    @Test
+    void bucketsWithoutARateAreOff() {
+        RouteLimiter limiter = new RouteLimiter(config(0, 1, 0, 1));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire("alice", 0)).isZero();
+        }
+    }
+
+    static RateLimitGatewayFilterFactory.Config config(double userRate, long userBurst, double routeRate, long routeBurst) {
+        RateLimitGatewayFilterFactory.Config config = new RateLimitGatewayFilterFactory.Config();
+        config.setRouteId("conferences");
+        config.setUserReplenishRate(userRate);
+        config.setUserBurstCapacity(userBurst);
+        config.setRouteReplenishRate(routeRate);
+        config.setRouteBurstCapacity(routeBurst);
+        return config;
+    }
+}
@@ -0,0 +1,75 @@
+package com.conference.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void admitsABurstThenWaitsForTheNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    void replenishesAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 1);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 4)).isEqualTo(SECOND / 4);
+        assertThat(bucket.tryAcquire(SECOND / 2)).isZero();
+    }
+
+    @Test
+    void neverBanksMoreThanTheBurstCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+        long later = 60 * SECOND;
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+
+    @Test
+    void refundedTokensCanBeTakenAgain() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+
+        assertThat(bucket.tryAcquire(0)).isZero();
+        bucket.refund();
+        assertThat(bucket.tryAcquire(0)).isZero();
+        assertThat(bucket.tryAcquire(0)).isEqualTo(SECOND);
+    }
+
+    @Test
+    void admitsEveryRequestUpToTheRateUnderContention() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 1_000);
+        int[] admitted = new int[4];
+        Thread[] threads = new Thread[admitted.length];
+        for (int t = 0; t < threads.length; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        admitted[index]++;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(admitted[0] + admitted[1] + admitted[2] + admitted[3]).isEqualTo(1_000);
+    }
+}
@@ -0,0 +1,130 @@
+package com.conference.gateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingReactiveJwtDecoderTest {
+
+    private static final String ISSUER = "http://issuer.test";
+
+    private final RSAKey first = generate("first");
+    private final RSAKey second = generate("second");
+    private final AtomicReference<JWKSet> published = new AtomicReference<>(new JWKSet(first));
+    private final AtomicInteger fetches = new AtomicInteger();
+    private final WebClient webClient = WebClient.builder()
+            .exchangeFunction(request -> {
+                fetches.incrementAndGet();
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(published.get().toString())
+                        .build());
+            })
+            .build();
+    private CachingReactiveJwtDecoder decoder;
+
+    @AfterEach
+    void destroy() {
+        decoder.destroy();
+    }
+
+    @Test
+    void fetchesKeysOnFirstUseAndRemembersVerifiedTokens() {
+        decoder = decoder(Duration.ZERO);
+        String token = sign(first);
+
+        assertThat(fetches).hasValue(0);
+        assertThat(decoder.decode(token).block().getSubject()).isEqualTo("user-1");
+        published.set(new JWKSet());
+        assertThat(decoder.decode(token).block().getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(1);
+    }
+
+    @Test
+    void refreshesKeysWhenATokenIsSignedWithAnUnknownKey() {
+        decoder = decoder(Duration.ZERO);
+        decoder.decode(sign(first)).block();
+
+        published.set(new JWKSet(List.of(first, second)));
+
+        assertThat(decoder.decode(sign(second)).block().getSubject()).isEqualTo("user-1");
+        assertThat(fetches).hasValue(2);
+    }
+
+    @Test
+    void forgetsVerifiedTokensWhenTheirKeyIsRemoved() {
+        decoder = decoder(Duration.ZERO);
+        String signedByFirst = sign(first);
+        decoder.decode(signedByFirst).block();
+
+        published.set(new JWKSet(second));
+        decoder.decode(sign(second)).block();
+
+        assertThatThrownBy(() -> decoder.decode(signedByFirst).block()).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void refreshesForUnknownKeysAtMostOncePerMinimumInterval() {
+        decoder = decoder(Duration.ofHours(1));
+        decoder.decode(sign(first)).block();
+
+        published.set(new JWKSet(List.of(first, second)));
+
+        assertThatThrownBy(() -> decoder.decode(sign(second)).block()).isInstanceOf(JwtException.class);
+        assertThat(fetches).hasValue(1);
+    }
+
+    private CachingReactiveJwtDecoder decoder(Duration minRefreshInterval) {
+        return new CachingReactiveJwtDecoder(ISSUER, ISSUER + "/jwks", webClient, Duration.ofHours(1),
+                minRefreshInterval, 100, new SimpleMeterRegistry());
+    }
+
+    private static String sign(RSAKey key) {
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                    new JWTClaimsSet.Builder()
+                            .issuer(ISSUER)
+                            .subject("user-1")
+                            .expirationTime(Date.from(Instant.now().plus(Duration.ofMinutes(5))))
+                            .build());
+            jwt.sign(new RSASSASigner(key));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static RSAKey generate(String keyId) {
+        try {
+            return new RSAKeyGenerator(2048).keyID(keyId).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -10,7 +10,7 @@ import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
 import org.axonframework.spring.stereotype.Aggregate;
 
-@Aggregate
+@Aggregate(snapshotTriggerDefinition = "keynoteSnapshotTrigger", cache = "keynoteCache")
 @NoArgsConstructor
 public class KeynoteAggregate {
 
@@ -0,0 +1,19 @@
+package com.conference.keynote.command.bulk;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One NDJSON line of a bulk import: {@code {"type":"UPDATE","keynoteId":"...","command":{...}}}.
+ * {@code keynoteId} is ignored for CREATE, which assigns a new id.
+ */
+@Data
+@NoArgsConstructor
+public class BulkKeynoteCommand {
+    public enum Type {CREATE, UPDATE}
+
+    private Type type;
+    private String keynoteId;
+    private JsonNode command;
+}
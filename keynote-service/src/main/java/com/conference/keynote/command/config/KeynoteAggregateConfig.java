@@ -0,0 +1,34 @@
+package com.conference.keynote.command.config;
+
+import org.axonframework.common.caching.Cache;
+import org.axonframework.common.caching.NoCache;
+import org.axonframework.common.caching.WeakReferenceCache;
+import org.axonframework.eventsourcing.AggregateLoadTimeSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.EventCountSnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.SnapshotTriggerDefinition;
+import org.axonframework.eventsourcing.Snapshotter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class KeynoteAggregateConfig {
+
+    @Bean
+    public SnapshotTriggerDefinition keynoteSnapshotTrigger(Snapshotter snapshotter,
+                                                            @Value("${aggregate.keynote.snapshot-trigger:event-count}") String trigger,
+                                                            @Value("${aggregate.keynote.snapshot-threshold:100}") int threshold,
+                                                            @Value("${aggregate.keynote.snapshot-load-time:50ms}") Duration loadTime) {
+        if ("load-time".equals(trigger)) {
+            return new AggregateLoadTimeSnapshotTriggerDefinition(snapshotter, loadTime.toMillis());
+        }
+        return new EventCountSnapshotTriggerDefinition(snapshotter, threshold);
+    }
+
+    @Bean
+    public Cache keynoteCache(@Value("${aggregate.keynote.cache-enabled:true}") boolean enabled) {
+        return enabled ? new WeakReferenceCache() : NoCache.INSTANCE;
+    }
+}
@@ -3,10 +3,17 @@ package com.conference.keynote.command.controller;
 import com.conference.keynote.command.CreateKeynoteCommand;
 import com.conference.keynote.command.DeleteKeynoteCommand;
 import com.conference.keynote.command.UpdateKeynoteCommand;
+import com.conference.keynote.command.bulk.BulkKeynoteCommand;
+import com.conference.support.bulk.BulkCommand;
+import com.conference.support.bulk.BulkCommandDispatcher;
+import com.conference.support.observability.CommandMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.AllArgsConstructor;
-import org.axonframework.commandhandling.gateway.CommandGateway;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
@@ -15,22 +22,52 @@ import java.util.concurrent.CompletableFuture;
 @AllArgsConstructor
 public class KeynoteCommandController {
 
-    private final CommandGateway commandGateway;
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final CommandMetrics commandMetrics;
+    private final BulkCommandDispatcher bulkCommandDispatcher;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/create")
     public CompletableFuture<String> createKeynote(@RequestBody CreateKeynoteCommand command) {
         command.setKeynoteId(UUID.randomUUID().toString());
-        return commandGateway.send(command);
+        return commandMetrics.send(command);
     }
 
     @PutMapping("/update/{id}")
     public CompletableFuture<String> updateKeynote(@PathVariable String id, @RequestBody UpdateKeynoteCommand command) {
         command.setKeynoteId(id);
-        return commandGateway.send(command);
+        return commandMetrics.send(command);
     }
 
     @DeleteMapping("/delete/{id}")
     public CompletableFuture<String> deleteKeynote(@PathVariable String id) {
-        return commandGateway.send(new DeleteKeynoteCommand(id));
+        return commandMetrics.send(new DeleteKeynoteCommand(id));
+    }
+
+    @PostMapping(value = "/bulk", consumes = NDJSON, produces = NDJSON)
+    public StreamingResponseBody bulk(InputStream body) {
+        return bulkCommandDispatcher.dispatch(body, BulkKeynoteCommand.class, this::toCommand);
+    }
+
+    private BulkCommand toCommand(BulkKeynoteCommand line) {
+        if (line.getType() == null || line.getCommand() == null) {
+            throw new IllegalArgumentException("type and command are required");
+        }
+        try {
+            if (line.getType() == BulkKeynoteCommand.Type.CREATE) {
+                CreateKeynoteCommand command = objectMapper.treeToValue(line.getCommand(), CreateKeynoteCommand.class);
+                command.setKeynoteId(UUID.randomUUID().toString());
+                return new BulkCommand(command.getKeynoteId(), command);
+            }
+            if (line.getKeynoteId() == null) {
+                throw new IllegalArgumentException("keynoteId is required for " + line.getType());
+            }
+            UpdateKeynoteCommand command = objectMapper.treeToValue(line.getCommand(), UpdateKeynoteCommand.class);
+            command.setKeynoteId(line.getKeynoteId());
+            return new BulkCommand(line.getKeynoteId(), command);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e.getOriginalMessage(), e);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.conference.keynote.query.cache;
+
+import com.conference.keynote.common.events.KeynoteUpdatedEvent;
+import com.conference.keynote.common.events.KeynoteDeletedEvent;
+import com.conference.support.cache.DeferredCacheEviction;
+import lombok.AllArgsConstructor;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.TrackingToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs on every instance, from that instance's own start-up position, so each replica evicts its
+ * local copy of every keynote that changes, whichever instance owns the projection segment that
+ * applied it. The eviction waits until the projection has committed the event; see
+ * {@link DeferredCacheEviction}.
+ */
+@Component
+@AllArgsConstructor
+@ProcessingGroup(KeynoteCacheInvalidator.PROCESSING_GROUP)
+public class KeynoteCacheInvalidator {
+
+    public static final String PROCESSING_GROUP = "keynote-cache";
+
+    private final DeferredCacheEviction keynoteCacheEviction;
+
+    @EventHandler
+    public void on(KeynoteUpdatedEvent event, TrackingToken token) {
+        keynoteCacheEviction.evictAfterCommit(event.getKeynoteId(), token);
+    }
+
+    @EventHandler
+    public void on(KeynoteDeletedEvent event, TrackingToken token) {
+        keynoteCacheEviction.evictAfterCommit(event.getKeynoteId(), token);
+    }
+}
@@ -0,0 +1,32 @@
+package com.conference.keynote.query.cache;
+
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+@Component
+public class KeynoteQueryCache {
+
+    public static final String KEYNOTES = "keynotes";
+
+    private final Cache keynotes;
+
+    public KeynoteQueryCache(CacheManager cacheManager) {
+        this.keynotes = cacheManager.getCache(KEYNOTES);
+    }
+
+    /**
+     * Evicts a keynote from this instance's cache once the current unit of work has committed, so
+     * a read in between cannot cache the row as it was before the change. Other instances evict
+     * their copy through {@link KeynoteCacheInvalidator}.
+     */
+    public void evict(String keynoteId) {
+        if (!CurrentUnitOfWork.isStarted()) {
+            keynotes.evict(keynoteId);
+            return;
+        }
+        CurrentUnitOfWork.get().root().afterCommit(committed -> keynotes.evict(keynoteId));
+    }
+}
@@ -0,0 +1,50 @@
+package com.conference.keynote.query.config;
+
+import com.conference.keynote.query.handler.KeynoteEventHandler;
+import com.conference.support.observability.ProjectionLagInterceptor;
+import com.conference.support.replay.ReplayableProjection;
+import com.conference.support.threads.VirtualThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.axonframework.eventhandling.TrackingEventProcessorConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+
+/**
+ * Registers the tracking processors here rather than under {@code axon.eventhandling.processors},
+ * because Axon's auto-configuration offers no way to give those processors a thread factory.
+ */
+@org.springframework.context.annotation.Configuration
+public class ProjectionProcessorConfig {
+
+    @Bean
+    public ReplayableProjection replayableProjection() {
+        return new ReplayableProjection(KeynoteEventHandler.PROCESSING_GROUP, List.of("keynote"));
+    }
+
+    @Autowired
+    public void configure(EventProcessingConfigurer configurer,
+                          MeterRegistry meterRegistry,
+                          @Value("${projection.processor.thread-count:4}") int threadCount,
+                          @Value("${projection.processor.initial-segment-count:4}") int initialSegmentCount,
+                          @Value("${projection.processor.batch-size:100}") int batchSize,
+                          @Value("${threads.virtual.enabled:false}") boolean virtualThreads) {
+        configurer.registerTrackingEventProcessor(KeynoteEventHandler.PROCESSING_GROUP, Configuration::eventStore,
+                configuration -> withThreads(TrackingEventProcessorConfiguration.forParallelProcessing(threadCount)
+                        .andInitialSegmentsCount(initialSegmentCount)
+                        .andBatchSize(batchSize), virtualThreads));
+        configurer.registerHandlerInterceptor(KeynoteEventHandler.PROCESSING_GROUP,
+                configuration -> new ProjectionLagInterceptor(KeynoteEventHandler.PROCESSING_GROUP, meterRegistry));
+    }
+
+    private static TrackingEventProcessorConfiguration withThreads(TrackingEventProcessorConfiguration configuration,
+                                                                   boolean virtualThreads) {
+        return virtualThreads
+                ? configuration.andThreadFactory(name -> VirtualThreads.newThreadFactory("EventProcessor[" + name + "]-"))
+                : configuration;
+    }
+}
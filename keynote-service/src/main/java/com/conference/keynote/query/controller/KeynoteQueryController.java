@@ -1,12 +1,16 @@
 package com.conference.keynote.query.controller;
 
+import com.conference.keynote.query.cache.KeynoteQueryCache;
 import com.conference.keynote.query.entity.Keynote;
 import com.conference.keynote.query.repository.KeynoteRepository;
+import com.conference.support.stream.NdjsonExporter;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,13 +20,20 @@ import java.util.List;
 public class KeynoteQueryController {
 
     private final KeynoteRepository keynoteRepository;
+    private final NdjsonExporter ndjsonExporter;
 
     @GetMapping("/all")
     public List<Keynote> getAllKeynotes() {
         return keynoteRepository.findAll();
     }
 
+    @GetMapping(value = "/export", produces = NdjsonExporter.NDJSON)
+    public StreamingResponseBody exportKeynotes() {
+        return ndjsonExporter.export(keynoteRepository::streamAll);
+    }
+
     @GetMapping("/{id}")
+    @Cacheable(cacheNames = KeynoteQueryCache.KEYNOTES, key = "#id", unless = "#result == null")
     public Keynote getKeynoteById(@PathVariable String id) {
         return keynoteRepository.findById(id).orElse(null);
     }
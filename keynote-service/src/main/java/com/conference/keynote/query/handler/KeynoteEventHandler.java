@@ -3,18 +3,26 @@ package com.conference.keynote.query.handler;
 import com.conference.keynote.common.events.KeynoteCreatedEvent;
 import com.conference.keynote.common.events.KeynoteDeletedEvent;
 import com.conference.keynote.common.events.KeynoteUpdatedEvent;
+import com.conference.keynote.query.cache.KeynoteQueryCache;
 import com.conference.keynote.query.entity.Keynote;
 import com.conference.keynote.query.repository.KeynoteRepository;
 import lombok.AllArgsConstructor;
+import org.axonframework.config.ProcessingGroup;
 import org.axonframework.eventhandling.EventHandler;
 import org.springframework.beans.BeanUtils;
 import org.springframework.stereotype.Service;
 
 @Service
 @AllArgsConstructor
+@ProcessingGroup(KeynoteEventHandler.PROCESSING_GROUP)
 public class KeynoteEventHandler {
 
+    // The package name Axon gave this processor before it was registered explicitly; renaming it
+    // would leave it without a token and replay the whole event store into the live table.
+    public static final String PROCESSING_GROUP = "com.conference.keynote.query.handler";
+
     private final KeynoteRepository keynoteRepository;
+    private final KeynoteQueryCache keynoteQueryCache;
 
     @EventHandler
     public void on(KeynoteCreatedEvent event) {
@@ -28,10 +36,12 @@ public class KeynoteEventHandler {
         Keynote keynote = keynoteRepository.findById(event.getKeynoteId()).orElse(new Keynote());
         BeanUtils.copyProperties(event, keynote);
         keynoteRepository.save(keynote);
+        keynoteQueryCache.evict(event.getKeynoteId());
     }
 
     @EventHandler
     public void on(KeynoteDeletedEvent event) {
         keynoteRepository.deleteById(event.getKeynoteId());
+        keynoteQueryCache.evict(event.getKeynoteId());
     }
 }
@@ -1,7 +1,25 @@
 package com.conference.keynote.query.repository;
 
 import com.conference.keynote.query.entity.Keynote;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 public interface KeynoteRepository extends JpaRepository<Keynote, String> {
+
+    // Rows per round trip of the server-side cursor (useCursorFetch) behind the Stream query.
+    int STREAM_FETCH_SIZE = 1000;
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select k from Keynote k")
+    Stream<Keynote> streamAll();
 }
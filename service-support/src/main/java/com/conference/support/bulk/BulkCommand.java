@@ -0,0 +1,15 @@
+package com.conference.support.bulk;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * A parsed bulk line: the command to send and the id of the aggregate it targets, which is
+ * reported back in the line's result.
+ */
+@Data
+@AllArgsConstructor
+public class BulkCommand {
+    private String id;
+    private Object command;
+}
@@ -0,0 +1,136 @@
+package com.conference.support.bulk;
+
+import com.conference.support.observability.CommandMetrics;
+import com.conference.support.observability.TraceContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+/**
+ * Sends the commands of an NDJSON request body to the command bus while the body is still being
+ * read, with at most {@code bulk.commands.parallelism} commands in flight. Each line gets one
+ * NDJSON result, in completion order and carrying the zero-based index of its line.
+ * <p>
+ * Command callbacks only queue their result. The thread reading the body writes the queued
+ * results between lines and while it waits for a free slot, so the response is never written
+ * from Axon's threads. Commands go through {@link CommandMetrics} and carry the trace id of the
+ * request that started the import.
+ */
+@Slf4j
+public class BulkCommandDispatcher {
+
+    private final CommandMetrics commandMetrics;
+    private final ObjectMapper objectMapper;
+    private final int parallelism;
+
+    public BulkCommandDispatcher(CommandMetrics commandMetrics, ObjectMapper objectMapper, int parallelism) {
+        this.commandMetrics = commandMetrics;
+        this.objectMapper = objectMapper;
+        this.parallelism = parallelism;
+    }
+
+    public <T> StreamingResponseBody dispatch(InputStream body, Class<T> lineType, Function<T, BulkCommand> toCommand) {
+        // The body is written on an async thread, which does not have the request's MDC.
+        String traceId = TraceContext.current();
+        return out -> {
+            if (traceId != null) {
+                MDC.put(TraceContext.TRACE_ID, traceId);
+            }
+            try {
+                dispatch(body, lineType, toCommand, out);
+            } finally {
+                MDC.remove(TraceContext.TRACE_ID);
+            }
+        };
+    }
+
+    private <T> void dispatch(InputStream body, Class<T> lineType, Function<T, BulkCommand> toCommand,
+                              OutputStream out) throws IOException {
+        BlockingQueue<BulkCommandResult> completed = new LinkedBlockingQueue<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        int inFlight = 0;
+        long index = 0;
+        String line;
+        try {
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                long lineIndex = index++;
+                BulkCommand command;
+                try {
+                    command = toCommand.apply(objectMapper.readValue(line, lineType));
+                } catch (IOException | RuntimeException e) {
+                    write(out, BulkCommandResult.failed(lineIndex, null, "Invalid command: " + e.getMessage()));
+                    flush(out);
+                    continue;
+                }
+                inFlight -= drain(completed, out, inFlight >= parallelism);
+                inFlight++;
+                commandMetrics.send(command.getCommand()).whenComplete((result, error) -> completed.add(error == null
+                        ? BulkCommandResult.ok(lineIndex, command.getId())
+                        : BulkCommandResult.failed(lineIndex, command.getId(), rootCause(error).getMessage())));
+            }
+            while (inFlight > 0) {
+                inFlight -= drain(completed, out, true);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Bulk import interrupted after " + index + " commands");
+        }
+    }
+
+    /**
+     * Writes every result that is already queued, first waiting for one if {@code block} is set,
+     * and returns how many were written.
+     */
+    private int drain(BlockingQueue<BulkCommandResult> completed, OutputStream out, boolean block)
+            throws InterruptedException {
+        BulkCommandResult result = block ? completed.take() : completed.poll();
+        int written = 0;
+        while (result != null) {
+            write(out, result);
+            written++;
+            result = completed.poll();
+        }
+        if (written > 0) {
+            flush(out);
+        }
+        return written;
+    }
+
+    private void write(OutputStream out, BulkCommandResult result) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        } catch (IOException e) {
+            // The client went away; the remaining commands are still sent.
+            log.debug("Could not write bulk result {}", result.getIndex(), e);
+        }
+    }
+
+    private static void flush(OutputStream out) {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            log.debug("Could not flush bulk results", e);
+        }
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
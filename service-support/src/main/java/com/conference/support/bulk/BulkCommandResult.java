@@ -0,0 +1,27 @@
+package com.conference.support.bulk;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkCommandResult {
+    public enum Status {OK, FAILED}
+
+    private long index;
+    private Status status;
+    private String id;
+    private String error;
+
+    public static BulkCommandResult ok(long index, String id) {
+        return new BulkCommandResult(index, Status.OK, id, null);
+    }
+
+    public static BulkCommandResult failed(long index, String id, String error) {
+        return new BulkCommandResult(index, Status.FAILED, id, error);
+    }
+}
@@ -0,0 +1,23 @@
+package com.conference.support.bulk.config;
+
+import com.conference.support.bulk.BulkCommandDispatcher;
+import com.conference.support.observability.CommandMetrics;
+import com.conference.support.observability.config.ObservabilityConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+
+@AutoConfiguration(after = {ObservabilityConfig.class, JacksonAutoConfiguration.class})
+@ConditionalOnBean(CommandMetrics.class)
+public class BulkCommandConfig {
+
+    @Bean
+    public BulkCommandDispatcher bulkCommandDispatcher(CommandMetrics commandMetrics,
+                                                       ObjectMapper objectMapper,
+                                                       @Value("${bulk.commands.parallelism:64}") int parallelism) {
+        return new BulkCommandDispatcher(commandMetrics, objectMapper, parallelism);
+    }
+}
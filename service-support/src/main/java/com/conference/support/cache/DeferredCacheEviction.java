@@ -0,0 +1,90 @@
+package com.conference.support.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.eventhandling.TrackingToken;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts entries of an instance's local cache once the projection has committed the event that
+ * changed them. Each instance feeds it from its own tracking processor, which reads events as
+ * soon as they are stored, usually before the projection has applied them. An entry is evicted
+ * when every segment of the projection's processor has committed past the event, whichever
+ * instance owns the segment. If the projection does not get there within {@code maxWait}, for
+ * example while it is being rebuilt, the entry is evicted anyway.
+ */
+@Slf4j
+public class DeferredCacheEviction {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+
+    private final String processingGroup;
+    private final Cache cache;
+    private final ProjectionPositions projectionPositions;
+    private final long maxWaitNanos;
+    private final Queue<PendingEviction> pending = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    public DeferredCacheEviction(String processingGroup, Cache cache, ProjectionPositions projectionPositions, Duration maxWait) {
+        this.processingGroup = processingGroup;
+        this.cache = cache;
+        this.projectionPositions = projectionPositions;
+        this.maxWaitNanos = maxWait.toNanos();
+        scheduler.scheduleWithFixedDelay(this::evictCommitted,
+                POLL_INTERVAL.toMillis(), POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Evicts {@code key} once the projection has committed the event read at {@code token}. Must
+     * be called in event order.
+     */
+    public void evictAfterCommit(Object key, TrackingToken token) {
+        OptionalLong position = token == null ? OptionalLong.empty() : token.position();
+        pending.add(new PendingEviction(key, position.orElse(Long.MAX_VALUE), System.nanoTime()));
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    // Pending evictions are queued in event order, so both their positions and ages are ordered.
+    void evictCommitted() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long committed;
+        try {
+            committed = projectionPositions.committedPosition(processingGroup).orElse(-1);
+        } catch (RuntimeException e) {
+            log.debug("Could not read the committed position of {}", processingGroup, e);
+            committed = -1;
+        }
+        long expired = System.nanoTime() - maxWaitNanos;
+        PendingEviction next;
+        while ((next = pending.peek()) != null && (next.position <= committed || next.queuedAt - expired <= 0)) {
+            cache.evict(next.key);
+            pending.poll();
+        }
+    }
+
+    private static final class PendingEviction {
+        private final Object key;
+        private final long position;
+        private final long queuedAt;
+
+        private PendingEviction(Object key, long position, long queuedAt) {
+            this.key = key;
+            this.position = position;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
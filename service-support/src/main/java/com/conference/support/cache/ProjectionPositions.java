@@ -0,0 +1,55 @@
+package com.conference.support.cache;
+
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.SimpleSerializedObject;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Reads how far a tracking processor has committed from the shared token store, whichever
+ * instances own its segments. The tokens are only read, never claimed.
+ */
+public class ProjectionPositions {
+
+    private static final String TOKENS_QUERY = "SELECT token, token_type FROM token_entry WHERE processor_name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Serializer serializer;
+
+    public ProjectionPositions(JdbcTemplate jdbcTemplate, Serializer serializer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.serializer = serializer;
+    }
+
+    /**
+     * The position up to which every segment of the processor has committed its events, or empty
+     * while the processor has no tokens or a segment has not handled any event yet.
+     */
+    public OptionalLong committedPosition(String processingGroup) {
+        List<OptionalLong> positions = jdbcTemplate.query(TOKENS_QUERY,
+                (rs, row) -> position(rs.getBytes(1), rs.getString(2)), processingGroup);
+        if (positions.isEmpty()) {
+            return OptionalLong.empty();
+        }
+        long committed = Long.MAX_VALUE;
+        for (OptionalLong position : positions) {
+            if (position.isEmpty()) {
+                return OptionalLong.empty();
+            }
+            committed = Math.min(committed, position.getAsLong());
+        }
+        return OptionalLong.of(committed);
+    }
+
+    private OptionalLong position(byte[] token, String tokenType) {
+        if (token == null || tokenType == null) {
+            return OptionalLong.empty();
+        }
+        TrackingToken trackingToken = serializer.deserialize(
+                new SimpleSerializedObject<>(token, byte[].class, tokenType, null));
+        return trackingToken == null ? OptionalLong.empty() : trackingToken.position();
+    }
+}
@@ -0,0 +1,20 @@
+package com.conference.support.cache.config;
+
+import com.conference.support.cache.ProjectionPositions;
+import org.axonframework.serialization.Serializer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@AutoConfiguration
+@ConditionalOnClass({Serializer.class, JdbcTemplate.class})
+public class CacheEvictionConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ProjectionPositions projectionPositions(JdbcTemplate jdbcTemplate, Serializer serializer) {
+        return new ProjectionPositions(jdbcTemplate, serializer);
+    }
+}
@@ -0,0 +1,80 @@
+package com.conference.support.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
+import org.axonframework.messaging.annotation.MessageHandlingMember;
+import org.axonframework.messaging.annotation.WrappedMessageHandlingMember;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits command handling into {@code aggregate.load}, from the moment the command bus hands the
+ * command over until the aggregate's handler runs (lock, cache or snapshot lookup and event
+ * replay), and {@code aggregate.apply}, the handler itself including the event sourcing handlers
+ * of every event it applies. Creation commands have no load phase.
+ * <p>
+ * Registered as a command bus interceptor, which marks the start, and as a handler enhancer,
+ * which wraps the aggregates' command handlers.
+ */
+public class AggregateMetrics implements HandlerEnhancerDefinition, MessageHandlerInterceptor<CommandMessage<?>> {
+
+    public static final String LOAD_TIMER = "aggregate.load";
+    public static final String APPLY_TIMER = "aggregate.apply";
+
+    private static final String HANDLING_STARTED = AggregateMetrics.class.getName() + ".handlingStarted";
+
+    private final MeterRegistry meterRegistry;
+
+    public AggregateMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object handle(UnitOfWork<? extends CommandMessage<?>> unitOfWork, InterceptorChain interceptorChain) throws Exception {
+        unitOfWork.resources().put(HANDLING_STARTED, System.nanoTime());
+        Object traceId = unitOfWork.getMessage().getMetaData().get(TraceContext.TRACE_ID);
+        if (traceId == null) {
+            return interceptorChain.proceed();
+        }
+        MDC.put(TraceContext.TRACE_ID, traceId.toString());
+        try {
+            return interceptorChain.proceed();
+        } finally {
+            MDC.remove(TraceContext.TRACE_ID);
+        }
+    }
+
+    @Override
+    public <T> MessageHandlingMember<T> wrapHandler(MessageHandlingMember<T> original) {
+        if (!original.canHandleMessageType(CommandMessage.class)) {
+            return original;
+        }
+        String aggregate = original.declaringClass().getSimpleName();
+        return new WrappedMessageHandlingMember<>(original) {
+            @Override
+            public Object handle(Message<?> message, T target) throws Exception {
+                long started = System.nanoTime();
+                String command = message.getPayloadType().getSimpleName();
+                Long handlingStarted = CurrentUnitOfWork.map(unitOfWork -> unitOfWork.<Long>getResource(HANDLING_STARTED))
+                        .orElse(null);
+                if (target != null && handlingStarted != null) {
+                    meterRegistry.timer(LOAD_TIMER, "aggregate", aggregate, "command", command)
+                            .record(started - handlingStarted, TimeUnit.NANOSECONDS);
+                }
+                try {
+                    return super.handle(message, target);
+                } finally {
+                    meterRegistry.timer(APPLY_TIMER, "aggregate", aggregate, "command", command)
+                            .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.conference.support.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends commands through the gateway and times each one until its result is known, which covers
+ * routing through Axon Server, loading the aggregate and appending its events.
+ */
+public class CommandMetrics {
+
+    public static final String DISPATCH_TIMER = "commands.dispatch";
+
+    private final CommandGateway commandGateway;
+    private final MeterRegistry meterRegistry;
+
+    public CommandMetrics(CommandGateway commandGateway, MeterRegistry meterRegistry) {
+        this.commandGateway = commandGateway;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <R> CompletableFuture<R> send(Object command) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<R> result = commandGateway.send(command);
+        result.whenComplete((value, error) -> sample.stop(meterRegistry.timer(DISPATCH_TIMER,
+                "command", command.getClass().getSimpleName(),
+                "outcome", error == null ? "success" : "failure")));
+        return result;
+    }
+}
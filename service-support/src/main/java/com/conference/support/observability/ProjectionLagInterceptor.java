@@ -0,0 +1,52 @@
+package com.conference.support.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.messaging.InterceptorChain;
+import org.axonframework.messaging.MessageHandlerInterceptor;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.slf4j.MDC;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Records {@code projection.lag}: the time from an event being applied to the aggregate until the
+ * batch holding it is committed to the read model, i.e. until queries can see it. Replayed
+ * events are left out, as their lag is the age of the event stream.
+ */
+public class ProjectionLagInterceptor implements MessageHandlerInterceptor<EventMessage<?>> {
+
+    public static final String LAG_TIMER = "projection.lag";
+
+    private final String processingGroup;
+    private final MeterRegistry meterRegistry;
+
+    public ProjectionLagInterceptor(String processingGroup, MeterRegistry meterRegistry) {
+        this.processingGroup = processingGroup;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object handle(UnitOfWork<? extends EventMessage<?>> unitOfWork, InterceptorChain interceptorChain) throws Exception {
+        EventMessage<?> event = unitOfWork.getMessage();
+        if (!ReplayToken.isReplay(event)) {
+            String eventType = event.getPayloadType().getSimpleName();
+            Instant appliedAt = event.getTimestamp();
+            unitOfWork.afterCommit(committed -> meterRegistry.timer(LAG_TIMER,
+                            "processingGroup", processingGroup, "event", eventType)
+                    .record(Duration.between(appliedAt, Instant.now())));
+        }
+        Object traceId = event.getMetaData().get(TraceContext.TRACE_ID);
+        if (traceId == null) {
+            return interceptorChain.proceed();
+        }
+        MDC.put(TraceContext.TRACE_ID, traceId.toString());
+        try {
+            return interceptorChain.proceed();
+        } finally {
+            MDC.remove(TraceContext.TRACE_ID);
+        }
+    }
+}
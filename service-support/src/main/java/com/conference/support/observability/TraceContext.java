@@ -0,0 +1,60 @@
+package com.conference.support.observability;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Gives every request a trace id: the one of a W3C {@code traceparent} header, else the caller's
+ * {@code X-Trace-Id}, else a new one. It is kept in the MDC for the request's logs, echoed back in
+ * {@code X-Trace-Id}, and copied onto dispatched commands under Axon's default trace key, which
+ * Axon then carries over to every event the command produces.
+ */
+public class TraceContext extends OncePerRequestFilter {
+
+    public static final String TRACE_ID = "traceId";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final String TRACEPARENT_HEADER = "traceparent";
+    private static final Pattern TRACEPARENT = Pattern.compile("[0-9a-f]{2}-([0-9a-f]{32})-[0-9a-f]{16}-[0-9a-f]{2}");
+    private static final Pattern TRACE_ID_PATTERN = Pattern.compile("[A-Za-z0-9-]{1,64}");
+
+    public static String current() {
+        return MDC.get(TRACE_ID);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String traceId = resolve(request);
+        MDC.put(TRACE_ID, traceId);
+        response.setHeader(TRACE_ID_HEADER, traceId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(TRACE_ID);
+        }
+    }
+
+    private static String resolve(HttpServletRequest request) {
+        String traceparent = request.getHeader(TRACEPARENT_HEADER);
+        if (traceparent != null) {
+            var matcher = TRACEPARENT.matcher(traceparent.trim());
+            if (matcher.matches()) {
+                return matcher.group(1);
+            }
+        }
+        String traceId = request.getHeader(TRACE_ID_HEADER);
+        if (traceId != null && TRACE_ID_PATTERN.matcher(traceId).matches()) {
+            return traceId;
+        }
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
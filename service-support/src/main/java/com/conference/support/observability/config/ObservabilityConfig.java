@@ -0,0 +1,60 @@
+package com.conference.support.observability.config;
+
+import com.conference.support.observability.AggregateMetrics;
+import com.conference.support.observability.CommandMetrics;
+import com.conference.support.observability.TraceContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.commandhandling.CommandBus;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.commandhandling.gateway.CommandGateway;
+import org.axonframework.messaging.MessageDispatchInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+@AutoConfiguration
+@ConditionalOnClass({CommandBus.class, MeterRegistry.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ObservabilityConfig {
+
+    @Bean
+    public TraceContext traceContext() {
+        return new TraceContext();
+    }
+
+    @Bean
+    public AggregateMetrics aggregateMetrics(MeterRegistry meterRegistry) {
+        return new AggregateMetrics(meterRegistry);
+    }
+
+    @Bean
+    public CommandMetrics commandMetrics(CommandGateway commandGateway, MeterRegistry meterRegistry) {
+        return new CommandMetrics(commandGateway, meterRegistry);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class CommandBusInterceptors {
+
+        @Autowired
+        public void configure(CommandBus commandBus, AggregateMetrics aggregateMetrics) {
+            commandBus.registerDispatchInterceptor(traceIdPropagation());
+            commandBus.registerHandlerInterceptor(aggregateMetrics);
+        }
+
+        // Commands are dispatched on the request thread, where the trace id is in the MDC.
+        private static MessageDispatchInterceptor<CommandMessage<?>> traceIdPropagation() {
+            return messages -> (index, message) -> {
+                String traceId = TraceContext.current();
+                if (traceId == null || message.getMetaData().containsKey(TraceContext.TRACE_ID)) {
+                    return message;
+                }
+                return message.andMetaData(Collections.singletonMap(TraceContext.TRACE_ID, traceId));
+            };
+        }
+    }
+}
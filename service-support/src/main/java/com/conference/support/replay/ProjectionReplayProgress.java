@@ -0,0 +1,34 @@
+package com.conference.support.replay;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProjectionReplayProgress {
+
+    public enum State {
+        IDLE, REPLAYING, SWAPPING, COMPLETED, FAILED
+    }
+
+    private String processingGroup;
+    private State state;
+    private int segments;
+    private Instant startedAt;
+    private Instant completedAt;
+    private long currentPosition;
+    private long targetPosition;
+    private double progress;
+    // Positions the slowest segment advanced per second over the last monitor interval.
+    private double eventsPerSecond;
+    private String error;
+    // Set while the live tables receive no updates: during the rebuild, and after it failed.
+    private Instant readModelFrozenSince;
+    @JsonIgnore
+    private Instant lastCheckedAt;
+}
@@ -0,0 +1,443 @@
+package com.conference.support.replay;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.ReplayToken;
+import org.axonframework.eventhandling.Segment;
+import org.axonframework.eventhandling.TrackingEventProcessor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Rebuilds a projection from the event store into shadow copies of its tables, which are then
+ * swapped in with a single atomic RENAME TABLE. The shadow tables get their foreign keys when they
+ * are created, so the live tables are never altered.
+ * <p>
+ * The processor is first split or merged into the requested number of segments while it runs, so
+ * every segment still knows how far it got; resetting the tokens then marks exactly the events the
+ * live tables have seen as replay, and the replay runs on that many threads while Axon's sequencing
+ * policy keeps each aggregate's events in order. Until the replay has caught up, the processor
+ * writes into the shadow tables and queries keep reading the live ones.
+ * <p>
+ * The live tables are frozen while the rebuild runs: the projection's only processor is busy
+ * replaying, so events applied in the meantime reach queries only after the swap. Progress reports
+ * this as {@code readModelFrozenSince}.
+ * <p>
+ * A rebuild survives a restart of the instance running it. Its state is in the database: the
+ * replay tokens and the shadow tables. On startup, before the processors start, a rebuild that was
+ * still running or had caught up is resumed. Retired tables left by a swap that stopped right after
+ * its RENAME are dropped.
+ * <p>
+ * The processor must not be running on other instances while a rebuild is in progress.
+ */
+@Slf4j
+public class ProjectionReplayService {
+
+    private static final Duration MONITOR_INTERVAL = Duration.ofSeconds(1);
+    // Segments created by a split wait for the next token claim, which Axon makes every 5 seconds.
+    private static final Duration RESEGMENT_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final String FOREIGN_KEYS_QUERY = "SELECT k.CONSTRAINT_NAME, k.COLUMN_NAME, k.REFERENCED_TABLE_NAME, "
+            + "k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE "
+            + "FROM information_schema.KEY_COLUMN_USAGE k JOIN information_schema.REFERENTIAL_CONSTRAINTS r "
+            + "ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME "
+            + "WHERE k.TABLE_SCHEMA = DATABASE() AND k.TABLE_NAME = ? AND k.REFERENCED_TABLE_NAME IS NOT NULL "
+            + "ORDER BY k.CONSTRAINT_NAME, k.ORDINAL_POSITION";
+    private static final String TABLE_EXISTS_QUERY =
+            "SELECT COUNT(*) FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?";
+    private static final String TOKEN_TABLE = "token_entry";
+
+    private final EventProcessingConfiguration eventProcessingConfiguration;
+    private final JdbcTemplate jdbcTemplate;
+    private final ShadowTables shadowTables;
+    private final CacheManager cacheManager;
+    private final Map<String, List<String>> projectionTables;
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor();
+    private final Map<String, ProjectionReplayProgress> replays = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledFuture<?>> monitors = new ConcurrentHashMap<>();
+
+    public ProjectionReplayService(EventProcessingConfiguration eventProcessingConfiguration,
+                                   JdbcTemplate jdbcTemplate,
+                                   ShadowTables shadowTables,
+                                   CacheManager cacheManager,
+                                   List<ReplayableProjection> projections) {
+        this.eventProcessingConfiguration = eventProcessingConfiguration;
+        this.jdbcTemplate = jdbcTemplate;
+        this.shadowTables = shadowTables;
+        this.cacheManager = cacheManager;
+        this.projectionTables = projections.stream().collect(Collectors.toUnmodifiableMap(
+                ReplayableProjection::getProcessingGroup, ReplayableProjection::getTables));
+        projectionTables.forEach(shadowTables::register);
+    }
+
+    /**
+     * Runs while the application context starts, before Axon starts the processors, so a resumed
+     * rebuild keeps writing into the shadow tables from its first event on.
+     */
+    @PostConstruct
+    public void resumeInterruptedReplays() {
+        projectionTables.forEach((processingGroup, tables) -> {
+            dropTables(tables, ShadowTables.RETIRED_SUFFIX);
+            boolean replaying = hasReplayTokens(processingGroup);
+            long shadows = tables.stream().filter(table -> tableExists(table + ShadowTables.SHADOW_SUFFIX)).count();
+            if (shadows == tables.size() || replaying) {
+                // Without every shadow table the restart came before the processor was started on them.
+                if (shadows < tables.size()) {
+                    createShadowTables(tables);
+                }
+                shadowTables.activate(processingGroup);
+                Integer segments = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM " + TOKEN_TABLE + " WHERE processor_name = ?", Integer.class, processingGroup);
+                track(processingGroup, segments == null ? 0 : segments);
+                log.warn("Resumed the replay of {} that was interrupted by a restart; its live tables receive no updates until the swap",
+                        processingGroup);
+            } else if (shadows > 0) {
+                dropTables(tables, ShadowTables.SHADOW_SUFFIX);
+            }
+        });
+    }
+
+    public synchronized ProjectionReplayProgress start(String processingGroup, Integer requestedSegments) {
+        List<String> tables = tablesOf(processingGroup);
+        TrackingEventProcessor processor = processorOf(processingGroup);
+        ProjectionReplayProgress current = replays.get(processingGroup);
+        if (current != null && (current.getState() == ProjectionReplayProgress.State.REPLAYING
+                || current.getState() == ProjectionReplayProgress.State.SWAPPING)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A replay of " + processingGroup + " is already running");
+        }
+
+        int segments = requestedSegments == null ? processor.maxCapacity() : requestedSegments;
+        if (segments < 1 || segments > processor.maxCapacity()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "segments must be between 1 and the processor thread count (" + processor.maxCapacity() + ")");
+        }
+
+        resegment(processingGroup, processor, segments);
+        processor.shutDown();
+        // Tokens first: replay tokens without shadow tables are what a restart in between resumes from.
+        processor.resetTokens();
+        dropTables(tables, ShadowTables.RETIRED_SUFFIX);
+        createShadowTables(tables);
+        shadowTables.activate(processingGroup);
+        processor.start();
+
+        ProjectionReplayProgress progress = track(processingGroup, segments);
+        log.warn("Started replay of {} into shadow tables with {} segments; its live tables receive no updates until the swap",
+                processingGroup, segments);
+        return progress;
+    }
+
+    public ProjectionReplayProgress progress(String processingGroup) {
+        tablesOf(processingGroup);
+        ProjectionReplayProgress progress = replays.get(processingGroup);
+        if (progress == null) {
+            progress = new ProjectionReplayProgress();
+            progress.setProcessingGroup(processingGroup);
+            progress.setState(ProjectionReplayProgress.State.IDLE);
+        }
+        return progress;
+    }
+
+    private ProjectionReplayProgress track(String processingGroup, int segments) {
+        Instant now = Instant.now();
+        ProjectionReplayProgress progress = new ProjectionReplayProgress();
+        progress.setProcessingGroup(processingGroup);
+        progress.setState(ProjectionReplayProgress.State.REPLAYING);
+        progress.setSegments(segments);
+        progress.setStartedAt(now);
+        progress.setReadModelFrozenSince(now);
+        progress.setLastCheckedAt(now);
+        replays.put(processingGroup, progress);
+        monitors.put(processingGroup, monitor.scheduleWithFixedDelay(() -> checkProgress(processingGroup),
+                MONITOR_INTERVAL.toMillis(), MONITOR_INTERVAL.toMillis(), TimeUnit.MILLISECONDS));
+        return progress;
+    }
+
+    @PreDestroy
+    public void shutDown() {
+        monitor.shutdownNow();
+    }
+
+    /**
+     * Splits the largest or merges the smallest segments of the running processor until it has the
+     * requested number. Unlike re-initializing the token store, this keeps each part at the
+     * position its events were processed up to, so the replay that follows neither re-runs events
+     * as live nor skips ones that were never handled.
+     */
+    private void resegment(String processingGroup, TrackingEventProcessor processor, int segments) {
+        if (!processor.isRunning()) {
+            processor.start();
+        }
+        Instant deadline = Instant.now().plus(RESEGMENT_TIMEOUT);
+        Map<Integer, EventTrackerStatus> statuses = awaitSettled(processingGroup, processor, deadline);
+        while (statuses.size() != segments) {
+            Collection<Segment> owned = statuses.values().stream().map(EventTrackerStatus::getSegment).toList();
+            CompletableFuture<Boolean> change;
+            if (statuses.size() < segments) {
+                Segment largest = owned.stream().min(Comparator.comparingInt(Segment::getMask)).orElseThrow();
+                change = processor.splitSegment(largest.getSegmentId());
+            } else {
+                Segment smallest = owned.stream().max(Comparator.comparingInt(Segment::getMask)).orElseThrow();
+                change = processor.mergeSegment(smallest.getSegmentId());
+            }
+            if (!Boolean.TRUE.equals(await(change, deadline))) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Could not change the segments of " + processingGroup + "; is its processor running elsewhere?");
+            }
+            statuses = awaitSettled(processingGroup, processor, deadline);
+        }
+    }
+
+    /**
+     * Waits until this instance processes every segment of the processor and no merge is pending.
+     */
+    private Map<Integer, EventTrackerStatus> awaitSettled(String processingGroup, TrackingEventProcessor processor, Instant deadline) {
+        while (true) {
+            Map<Integer, EventTrackerStatus> statuses = processor.processingStatus();
+            if (!statuses.isEmpty() && isWholeStream(statuses.values())
+                    && statuses.values().stream().noneMatch(EventTrackerStatus::isMerging)) {
+                return statuses;
+            }
+            if (Instant.now().isAfter(deadline)) {
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "The processor of " + processingGroup + " did not claim all of its segments in time");
+            }
+            sleep(Duration.ofMillis(100));
+        }
+    }
+
+    // A segment with mask m covers 1/(m+1) of the sequence identifiers.
+    private static boolean isWholeStream(Collection<EventTrackerStatus> statuses) {
+        double covered = 0;
+        for (EventTrackerStatus status : statuses) {
+            covered += 1.0 / (status.getSegment().getMask() + 1);
+        }
+        return Math.abs(covered - 1) < 1e-9;
+    }
+
+    private static <T> T await(CompletableFuture<T> future, Instant deadline) {
+        try {
+            return future.get(Math.max(Duration.between(Instant.now(), deadline).toMillis(), 1), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while changing segments", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Changing segments failed", e);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while changing segments", e);
+        }
+    }
+
+    /**
+     * CREATE TABLE ... LIKE copies indexes but not foreign keys, so each shadow table gets the keys
+     * of its live table, pointing at the shadow of the referenced table where that is part of the
+     * rebuild. The keys are left unnamed: MySQL names them after the table and renames them with
+     * it, so the swap carries them over and the live tables' key names are never needed twice.
+     */
+    private void createShadowTables(List<String> tables) {
+        dropTables(tables, ShadowTables.SHADOW_SUFFIX);
+        for (String table : tables) {
+            jdbcTemplate.execute("CREATE TABLE " + table + ShadowTables.SHADOW_SUFFIX + " LIKE " + table);
+            for (String sql : shadowForeignKeys(table, tables)) {
+                jdbcTemplate.execute(sql);
+            }
+        }
+    }
+
+    // Referencing tables come last in the list, so they are dropped first.
+    private void dropTables(List<String> tables, String suffix) {
+        for (int i = tables.size() - 1; i >= 0; i--) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + tables.get(i) + suffix);
+        }
+    }
+
+    private boolean tableExists(String table) {
+        Integer count = jdbcTemplate.queryForObject(TABLE_EXISTS_QUERY, Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    private boolean hasReplayTokens(String processingGroup) {
+        if (!tableExists(TOKEN_TABLE)) {
+            return false;
+        }
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TOKEN_TABLE
+                + " WHERE processor_name = ? AND token_type = ?", Integer.class, processingGroup, ReplayToken.class.getName());
+        return count != null && count > 0;
+    }
+
+    private void checkProgress(String processingGroup) {
+        ProjectionReplayProgress progress = replays.get(processingGroup);
+        try {
+            TrackingEventProcessor processor = processorOf(processingGroup);
+            Collection<EventTrackerStatus> statuses = processor.processingStatus().values();
+
+            long current = Long.MAX_VALUE;
+            long target = 0;
+            boolean caughtUp = statuses.size() == progress.getSegments();
+            for (EventTrackerStatus status : statuses) {
+                current = Math.min(current, status.getCurrentPosition().orElse(0));
+                target = Math.max(target, status.getResetPosition().orElse(0));
+                caughtUp &= status.isCaughtUp() && !status.isReplaying();
+                if (status.isErrorState()) {
+                    progress.setError(String.valueOf(status.getError()));
+                }
+            }
+            if (statuses.isEmpty()) {
+                current = 0;
+            }
+
+            Instant now = Instant.now();
+            double elapsedSeconds = Math.max(Duration.between(progress.getLastCheckedAt(), now).toMillis(), 1) / 1000.0;
+            progress.setEventsPerSecond(Math.max(current - progress.getCurrentPosition(), 0) / elapsedSeconds);
+            progress.setLastCheckedAt(now);
+            progress.setCurrentPosition(current);
+            progress.setTargetPosition(target);
+            progress.setProgress(target == 0 ? (caughtUp ? 1 : 0) : Math.min(1, (double) current / target));
+
+            if (caughtUp) {
+                swap(processingGroup, processor, progress);
+            }
+        } catch (RuntimeException e) {
+            // The shadow tables stay active, so a restart resumes the rebuild instead of replaying into the live tables.
+            log.error("Replay of {} failed; its event processor stays stopped and its live tables stay frozen", processingGroup, e);
+            processorOf(processingGroup).shutDown();
+            progress.setState(ProjectionReplayProgress.State.FAILED);
+            progress.setError(e.getMessage());
+            progress.setCompletedAt(Instant.now());
+            stopMonitoring(processingGroup);
+        }
+    }
+
+    private void swap(String processingGroup, TrackingEventProcessor processor, ProjectionReplayProgress progress) {
+        progress.setState(ProjectionReplayProgress.State.SWAPPING);
+        processor.shutDown();
+
+        List<String> tables = tablesOf(processingGroup);
+        List<String> renames = new ArrayList<>();
+        for (String table : tables) {
+            renames.add(table + " TO " + table + ShadowTables.RETIRED_SUFFIX);
+            renames.add(table + ShadowTables.SHADOW_SUFFIX + " TO " + table);
+        }
+        // DDL commits implicitly, so the RENAME is the only step that changes what queries read.
+        // Dropping the retired tables afterwards is repeated on startup if it does not finish.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RENAME TABLE " + String.join(", ", renames));
+                for (int i = tables.size() - 1; i >= 0; i--) {
+                    statement.execute("DROP TABLE IF EXISTS " + tables.get(i) + ShadowTables.RETIRED_SUFFIX);
+                }
+            }
+            return null;
+        });
+
+        shadowTables.deactivate(processingGroup);
+        // Cached queries were read from the tables that were just retired.
+        for (String cacheName : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        processor.start();
+        progress.setProgress(1);
+        progress.setState(ProjectionReplayProgress.State.COMPLETED);
+        progress.setCompletedAt(Instant.now());
+        progress.setReadModelFrozenSince(null);
+        stopMonitoring(processingGroup);
+        log.info("Replay of {} completed and swapped in after {}", processingGroup,
+                Duration.between(progress.getStartedAt(), progress.getCompletedAt()));
+    }
+
+    private List<String> shadowForeignKeys(String table, List<String> tables) {
+        Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+        jdbcTemplate.query(FOREIGN_KEYS_QUERY, (RowCallbackHandler) rs -> {
+            String referencedTable = rs.getString(3);
+            String updateRule = rs.getString(5);
+            String deleteRule = rs.getString(6);
+            ForeignKey foreignKey = foreignKeys.computeIfAbsent(rs.getString(1),
+                    name -> new ForeignKey(referencedTable, updateRule, deleteRule));
+            foreignKey.columns.add(rs.getString(2));
+            foreignKey.referencedColumns.add(rs.getString(4));
+        }, table);
+        List<String> statements = new ArrayList<>();
+        for (ForeignKey foreignKey : foreignKeys.values()) {
+            String referencedTable = tables.contains(foreignKey.referencedTable)
+                    ? foreignKey.referencedTable + ShadowTables.SHADOW_SUFFIX
+                    : foreignKey.referencedTable;
+            statements.add("ALTER TABLE " + table + ShadowTables.SHADOW_SUFFIX
+                    + " ADD FOREIGN KEY (" + String.join(", ", foreignKey.columns) + ") REFERENCES " + referencedTable
+                    + " (" + String.join(", ", foreignKey.referencedColumns) + ")"
+                    + " ON UPDATE " + foreignKey.updateRule + " ON DELETE " + foreignKey.deleteRule);
+        }
+        return statements;
+    }
+
+    private void stopMonitoring(String processingGroup) {
+        ScheduledFuture<?> future = monitors.remove(processingGroup);
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private List<String> tablesOf(String processingGroup) {
+        List<String> tables = projectionTables.get(processingGroup);
+        if (tables == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown projection " + processingGroup);
+        }
+        return tables;
+    }
+
+    private TrackingEventProcessor processorOf(String processingGroup) {
+        return eventProcessingConfiguration.eventProcessor(processingGroup, TrackingEventProcessor.class)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                        "No tracking event processor for " + processingGroup));
+    }
+
+    private static final class ForeignKey {
+        private final String referencedTable;
+        private final String updateRule;
+        private final String deleteRule;
+        private final List<String> columns = new ArrayList<>();
+        private final List<String> referencedColumns = new ArrayList<>();
+
+        private ForeignKey(String referencedTable, String updateRule, String deleteRule) {
+            this.referencedTable = referencedTable;
+            this.updateRule = updateRule;
+            this.deleteRule = deleteRule;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.conference.support.replay;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A projection that can be rebuilt through {@link ProjectionReplayService}: the processing group
+ * of its tracking processor and the tables it writes. Tables must be listed so that every table
+ * comes after the tables its foreign keys reference.
+ */
+@Value
+public class ReplayableProjection {
+    String processingGroup;
+    List<String> tables;
+}
@@ -0,0 +1,54 @@
+package com.conference.support.replay;
+
+import org.axonframework.common.transaction.Transaction;
+import org.axonframework.common.transaction.TransactionManager;
+
+/**
+ * Transaction manager of a projection's event processor. While the projection is being rebuilt,
+ * every transaction the processor starts writes into the shadow tables.
+ */
+public class ShadowTableTransactionManager implements TransactionManager {
+
+    private final TransactionManager delegate;
+    private final ShadowTables shadowTables;
+    private final String processingGroup;
+
+    public ShadowTableTransactionManager(TransactionManager delegate, ShadowTables shadowTables, String processingGroup) {
+        this.delegate = delegate;
+        this.shadowTables = shadowTables;
+        this.processingGroup = processingGroup;
+    }
+
+    @Override
+    public Transaction startTransaction() {
+        if (!shadowTables.isActive(processingGroup)) {
+            return delegate.startTransaction();
+        }
+        shadowTables.enter(processingGroup);
+        try {
+            Transaction transaction = delegate.startTransaction();
+            return new Transaction() {
+                @Override
+                public void commit() {
+                    try {
+                        transaction.commit();
+                    } finally {
+                        shadowTables.exit();
+                    }
+                }
+
+                @Override
+                public void rollback() {
+                    try {
+                        transaction.rollback();
+                    } finally {
+                        shadowTables.exit();
+                    }
+                }
+            };
+        } catch (RuntimeException e) {
+            shadowTables.exit();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.conference.support.replay;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Redirects the projection tables of a processing group to their shadow copies while that group
+ * is being rebuilt. Only statements issued inside a shadow transaction (see
+ * {@link ShadowTableTransactionManager}) are rewritten; queries and Axon's token_entry statements
+ * keep using the live tables.
+ */
+public class ShadowTables implements StatementInspector {
+
+    public static final String SHADOW_SUFFIX = "_shadow";
+    public static final String RETIRED_SUFFIX = "_retired";
+
+    private static final ThreadLocal<List<Pattern>> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, List<Pattern>> patterns = new ConcurrentHashMap<>();
+    private final Set<String> activeGroups = ConcurrentHashMap.newKeySet();
+
+    public void register(String processingGroup, List<String> tables) {
+        patterns.put(processingGroup, tables.stream()
+                .map(table -> Pattern.compile("(?i)\\b(from|into|update|join)\\s+(" + Pattern.quote(table) + ")\\b"))
+                .toList());
+    }
+
+    public void activate(String processingGroup) {
+        activeGroups.add(processingGroup);
+    }
+
+    public void deactivate(String processingGroup) {
+        activeGroups.remove(processingGroup);
+    }
+
+    public boolean isActive(String processingGroup) {
+        return activeGroups.contains(processingGroup);
+    }
+
+    void enter(String processingGroup) {
+        CURRENT.set(patterns.get(processingGroup));
+    }
+
+    void exit() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<Pattern> tablePatterns = CURRENT.get();
+        if (tablePatterns == null) {
+            return sql;
+        }
+        for (Pattern pattern : tablePatterns) {
+            Matcher matcher = pattern.matcher(sql);
+            if (matcher.find()) {
+                sql = matcher.replaceAll("$1 $2" + SHADOW_SUFFIX);
+            }
+        }
+        return sql;
+    }
+}
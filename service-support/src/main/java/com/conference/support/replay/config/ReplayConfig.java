@@ -0,0 +1,69 @@
+package com.conference.support.replay.config;
+
+import com.conference.support.replay.ProjectionReplayService;
+import com.conference.support.replay.ReplayableProjection;
+import com.conference.support.replay.ShadowTableTransactionManager;
+import com.conference.support.replay.ShadowTables;
+import com.conference.support.replay.controller.ProjectionAdminController;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.config.EventProcessingConfiguration;
+import org.axonframework.config.EventProcessingConfigurer;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Enabled by declaring a {@link ReplayableProjection} bean for each projection that can be rebuilt.
+ */
+@AutoConfiguration
+@ConditionalOnClass({EventProcessingConfigurer.class, HibernatePropertiesCustomizer.class})
+@ConditionalOnBean(ReplayableProjection.class)
+public class ReplayConfig {
+
+    @Bean
+    public ShadowTables shadowTables() {
+        return new ShadowTables();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shadowTablesCustomizer(ShadowTables shadowTables) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, shadowTables);
+    }
+
+    @Bean
+    public ProjectionReplayService projectionReplayService(EventProcessingConfiguration eventProcessingConfiguration,
+                                                           JdbcTemplate jdbcTemplate,
+                                                           ShadowTables shadowTables,
+                                                           CacheManager cacheManager,
+                                                           List<ReplayableProjection> projections) {
+        return new ProjectionReplayService(eventProcessingConfiguration, jdbcTemplate, shadowTables, cacheManager, projections);
+    }
+
+    @Bean
+    public ProjectionAdminController projectionAdminController(ProjectionReplayService replayService) {
+        return new ProjectionAdminController(replayService);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ProcessorTransactions {
+
+        @Autowired
+        public void configure(EventProcessingConfigurer configurer, ShadowTables shadowTables,
+                              List<ReplayableProjection> projections) {
+            for (ReplayableProjection projection : projections) {
+                String processingGroup = projection.getProcessingGroup();
+                configurer.registerTransactionManager(processingGroup, configuration -> new ShadowTableTransactionManager(
+                        configuration.getComponent(TransactionManager.class), shadowTables, processingGroup));
+            }
+        }
+    }
+}
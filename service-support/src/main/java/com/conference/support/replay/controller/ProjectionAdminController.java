@@ -0,0 +1,30 @@
+package com.conference.support.replay.controller;
+
+import com.conference.support.replay.ProjectionReplayProgress;
+import com.conference.support.replay.ProjectionReplayService;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/projections")
+@AllArgsConstructor
+public class ProjectionAdminController {
+
+    private final ProjectionReplayService replayService;
+
+    @PostMapping("/{processingGroup}/replay")
+    public ProjectionReplayProgress startReplay(@PathVariable String processingGroup,
+                                                @RequestParam(required = false) Integer segments) {
+        return replayService.start(processingGroup, segments);
+    }
+
+    @GetMapping("/{processingGroup}/replay")
+    public ProjectionReplayProgress getReplayProgress(@PathVariable String processingGroup) {
+        return replayService.progress(processingGroup);
+    }
+}
@@ -0,0 +1,58 @@
+package com.conference.support.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes a repository {@link Stream} to the response as NDJSON while the rows are still being
+ * fetched from the database cursor. The stream is consumed inside a read-only transaction that
+ * holds one connection for the duration of the export, and the persistence context is cleared as
+ * rows go out, so memory use does not depend on the size of the result.
+ */
+public class NdjsonExporter {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public NdjsonExporter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public <T> StreamingResponseBody export(Supplier<Stream<T>> query) {
+        return out -> readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> items = query.get()) {
+                long written = 0;
+                for (T item : (Iterable<T>) items::iterator) {
+                    out.write(objectMapper.writeValueAsBytes(item));
+                    out.write('\n');
+                    // The first row goes out immediately, later ones in chunks.
+                    if (written++ % FLUSH_EVERY == 0) {
+                        out.flush();
+                        entityManager.clear();
+                    }
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
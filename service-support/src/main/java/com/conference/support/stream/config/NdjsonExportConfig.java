@@ -0,0 +1,25 @@
+package com.conference.support.stream.config;
+
+import com.conference.support.stream.NdjsonExporter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@AutoConfiguration(after = {HibernateJpaAutoConfiguration.class, JacksonAutoConfiguration.class})
+@ConditionalOnClass(EntityManager.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class NdjsonExportConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public NdjsonExporter ndjsonExporter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        return new NdjsonExporter(objectMapper, transactionManager);
+    }
+}
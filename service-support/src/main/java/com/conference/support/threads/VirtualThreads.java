@@ -0,0 +1,44 @@
+package com.conference.support.threads;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Virtual thread factories for the opt-in {@code threads.virtual.enabled} mode. The build
+ * targets Java 17, so the Java 21 API is looked up reflectively; the mode refuses to start on an
+ * older runtime instead of silently falling back to platform threads.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        requireSupported();
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread factory", e);
+        }
+    }
+
+    public static ExecutorService newExecutor(String namePrefix) {
+        ThreadFactory threadFactory = newThreadFactory(namePrefix);
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    private static void requireSupported() {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("threads.virtual.enabled requires Java 21, running on " + Runtime.version());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.conference.support.cache;
+
+import org.axonframework.eventhandling.GlobalSequenceTrackingToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeferredCacheEvictionTest {
+
+    private final ConcurrentMapCache cache = new ConcurrentMapCache("conferences");
+    private final StubPositions positions = new StubPositions();
+    private DeferredCacheEviction eviction;
+
+    @AfterEach
+    void shutDown() {
+        eviction.shutDown();
+    }
+
+    @Test
+    void evictsOnlyOnceTheProjectionHasCommittedTheEvent() {
+        eviction = new DeferredCacheEviction("projection", cache, positions, Duration.ofHours(1));
+        cache.put("a", "A");
+        cache.put("b", "B");
+        eviction.evictAfterCommit("a", new GlobalSequenceTrackingToken(10));
+        eviction.evictAfterCommit("b", new GlobalSequenceTrackingToken(12));
+
+        eviction.evictCommitted();
+        assertThat(cache.get("a")).isNotNull();
+
+        positions.committed = OptionalLong.of(11);
+        eviction.evictCommitted();
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.get("b")).isNotNull();
+
+        positions.committed = OptionalLong.of(12);
+        eviction.evictCommitted();
+        assertThat(cache.get("b")).isNull();
+    }
+
+    @Test
+    void evictsAfterTheMaximumWaitWhenTheProjectionDoesNotCommit() {
+        eviction = new DeferredCacheEviction("projection", cache, positions, Duration.ZERO);
+        cache.put("a", "A");
+        eviction.evictAfterCommit("a", new GlobalSequenceTrackingToken(10));
+
+        eviction.evictCommitted();
+
+        assertThat(cache.get("a")).isNull();
+    }
+
+    private static final class StubPositions extends ProjectionPositions {
+        private volatile OptionalLong committed = OptionalLong.empty();
+
+        private StubPositions() {
+            super(null, null);
+        }
+
+        @Override
+        public OptionalLong committedPosition(String processingGroup) {
+            return committed;
+        }
+    }
+}